@@ -1,6 +1,9 @@
 package fr.astfaster.hermeus.api;
 
 import com.google.gson.Gson;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import fr.astfaster.hermeus.api.memory.AllocatorMetrics;
+import fr.astfaster.hermeus.api.memory.LeakDetection;
 import fr.astfaster.hermeus.api.server.HermeusServer;
 import org.jetbrains.annotations.NotNull;
 
@@ -46,4 +49,44 @@ public interface Hermeus {
      */
     void defaultSerializer(@NotNull Gson serializer);
 
+    /**
+     * Registers a {@linkplain HermeusCodec codec}, replacing the codec of the same media type if there is one.<br>
+     * JSON ("application/json"), CBOR ("application/cbor") and plain text ("text/plain") codecs are registered by default.
+     * The registration order is the preference order used when a client accepts several codecs equally.
+     * Codecs can also be registered on a single server, with {@link HermeusServer.Builder#codec(HermeusCodec)}.
+     *
+     * @param codec The {@link HermeusCodec} to register
+     */
+    void codec(@NotNull HermeusCodec codec);
+
+    /**
+     * Returns the registered {@linkplain HermeusCodec codecs}, in their preference order.
+     *
+     * @return A list of {@linkplain HermeusCodec codecs}
+     */
+    @NotNull List<HermeusCodec> codecs();
+
+    /**
+     * Returns a snapshot of the memory used by the buffer allocator of the servers.<br>
+     * Request bodies are aggregated in direct buffers, so the used direct memory grows with big bodies and concurrent requests.
+     *
+     * @return The {@link AllocatorMetrics}
+     */
+    @NotNull AllocatorMetrics allocatorMetrics();
+
+    /**
+     * Sets the {@linkplain LeakDetection leak detection level}.<br>
+     * It applies to the whole process; by default, it is {@link LeakDetection#SIMPLE} (or the value of the "io.netty.leakDetection.level" system property).
+     *
+     * @param detection The new {@link LeakDetection} level
+     */
+    void leakDetection(@NotNull LeakDetection detection);
+
+    /**
+     * Returns the {@linkplain LeakDetection leak detection level}.
+     *
+     * @return A {@link LeakDetection} level
+     */
+    @NotNull LeakDetection leakDetection();
+
 }
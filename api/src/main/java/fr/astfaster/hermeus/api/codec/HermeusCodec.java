@@ -0,0 +1,52 @@
+package fr.astfaster.hermeus.api.codec;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a codec converting objects from and to the bodies of requests and responses in a given format (e.g. JSON).<br>
+ * Codecs are {@linkplain fr.astfaster.hermeus.api.Hermeus#codec(HermeusCodec) registered} on Hermeus (or on a {@linkplain fr.astfaster.hermeus.api.server.HermeusServer.Builder#codec(HermeusCodec) server}), and the one used for a message is chosen from its "Content-Type" header, or from the "Accept" header of the request for a response.<br><br>
+ *
+ * A codec is shared by all the connections: it must be thread-safe.
+ */
+public interface HermeusCodec {
+
+    /**
+     * Returns the content type of the encoded data, as sent in the "Content-Type" header.<br>
+     * Its media type (e.g. "application/json" for "application/json; charset=UTF-8") identifies the codec.
+     *
+     * @return A content type (e.g. "application/json; charset=UTF-8")
+     */
+    @NotNull String contentType();
+
+    /**
+     * Checks whether the codec can convert the objects of a given type.
+     *
+     * @param type The type of the objects
+     * @return <code>true</code> if the objects can be encoded and decoded
+     */
+    default boolean supports(@NotNull Class<?> type) {
+        return true;
+    }
+
+    /**
+     * Encodes an object.
+     *
+     * @param object The object to encode
+     * @param out The buffer where the encoded object is written
+     * @throws Exception If the object couldn't be encoded
+     */
+    void encode(@NotNull Object object, @NotNull ByteBuf out) throws Exception;
+
+    /**
+     * Decodes an object.
+     *
+     * @param in The buffer containing the encoded object
+     * @param type The type of the object to decode
+     * @return The decoded object
+     * @param <T> The type of the object to return
+     * @throws Exception If the object couldn't be decoded
+     */
+    <T> T decode(@NotNull ByteBuf in, @NotNull Class<T> type) throws Exception;
+
+}
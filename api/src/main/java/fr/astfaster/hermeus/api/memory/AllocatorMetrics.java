@@ -0,0 +1,28 @@
+package fr.astfaster.hermeus.api.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents a snapshot of the memory used by the buffer allocator of Hermeus.<br>
+ * The used memory includes the free space of the allocated chunks, as chunks are only given back when they are empty.
+ *
+ * @param pooled Whether the allocator pools its buffers; if not, there are no arenas and the thread caches are 0
+ * @param usedDirectMemory The direct memory reserved by the allocator, in bytes
+ * @param usedHeapMemory The heap memory reserved by the allocator, in bytes
+ * @param pinnedDirectMemory The direct memory of the buffers currently in use, in bytes; -1 if the allocator doesn't tell it
+ * @param pinnedHeapMemory The heap memory of the buffers currently in use, in bytes; -1 if the allocator doesn't tell it
+ * @param maxDirectMemory The maximum direct memory of the process (see -XX:MaxDirectMemorySize), in bytes
+ * @param processDirectMemory The direct memory used by Netty in the whole process, in bytes; -1 if it isn't tracked
+ * @param chunkSize The size of the chunks the arenas allocate, in bytes
+ * @param threadLocalCaches The number of thread caches
+ * @param smallCacheSize The number of small buffers a thread cache can hold
+ * @param normalCacheSize The number of normal buffers a thread cache can hold
+ * @param directArenas The arenas allocating direct buffers
+ * @param heapArenas The arenas allocating heap buffers
+ */
+public record AllocatorMetrics(boolean pooled, long usedDirectMemory, long usedHeapMemory, long pinnedDirectMemory, long pinnedHeapMemory, long maxDirectMemory, long processDirectMemory,
+                               int chunkSize, int threadLocalCaches, int smallCacheSize, int normalCacheSize, @NotNull List<ArenaMetrics> directArenas, @NotNull List<ArenaMetrics> heapArenas) {
+
+}
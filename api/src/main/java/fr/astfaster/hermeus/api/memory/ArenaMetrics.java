@@ -0,0 +1,21 @@
+package fr.astfaster.hermeus.api.memory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents a snapshot of an arena of the buffer allocator.<br>
+ * Threads are spread over the arenas, so that they rarely contend on the same one.
+ *
+ * @param threadCaches The number of thread caches using the arena
+ * @param allocations The number of allocations since the arena was created
+ * @param hugeAllocations The number of allocations bigger than a chunk, which are not pooled
+ * @param deallocations The number of deallocations since the arena was created
+ * @param activeAllocations The number of buffers currently allocated
+ * @param activeBytes The number of bytes of the chunks and huge buffers currently allocated
+ * @param chunkLists The chunks of the arena, grouped by usage
+ */
+public record ArenaMetrics(int threadCaches, long allocations, long hugeAllocations, long deallocations, long activeAllocations, long activeBytes, @NotNull List<ChunkListMetrics> chunkLists) {
+
+}
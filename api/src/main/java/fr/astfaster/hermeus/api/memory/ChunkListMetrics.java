@@ -0,0 +1,14 @@
+package fr.astfaster.hermeus.api.memory;
+
+/**
+ * Represents the chunks of an arena whose usage is in a given range.<br>
+ * Many chunks in low usage ranges mean the memory is fragmented: it is reserved but mostly free.
+ *
+ * @param minUsage The minimum usage of the chunks, in percents
+ * @param maxUsage The maximum usage of the chunks, in percents
+ * @param chunks The number of chunks
+ * @param freeBytes The number of free bytes in the chunks
+ */
+public record ChunkListMetrics(int minUsage, int maxUsage, int chunks, long freeBytes) {
+
+}
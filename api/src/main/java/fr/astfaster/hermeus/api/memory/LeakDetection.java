@@ -0,0 +1,18 @@
+package fr.astfaster.hermeus.api.memory;
+
+/**
+ * Represents the levels of detection of leaked buffers, i.e. buffers which were garbage collected without being released.<br>
+ * Leaks are logged with the places the buffer was last accessed at, e.g. a handler retaining a request body and never releasing it.
+ */
+public enum LeakDetection {
+
+    /** No detection */
+    DISABLED,
+    /** A sample of the buffers is tracked (1 in 128 by default, see the "io.netty.leakDetection.samplingInterval" system property); a leak reports where the buffer was allocated */
+    SIMPLE,
+    /** Same sampling as {@link #SIMPLE}, but a leak also reports the recent accesses to the buffer */
+    ADVANCED,
+    /** Every buffer is tracked and reports its recent accesses; only meant for tests, as it slows allocations down a lot */
+    PARANOID
+
+}
@@ -0,0 +1,159 @@
+package fr.astfaster.hermeus.api.server;
+
+import fr.astfaster.hermeus.api.util.builder.BuilderException;
+import fr.astfaster.hermeus.api.util.builder.IBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Represents the settings of the access log of a {@linkplain HermeusServer server}.<br>
+ * Each response is logged with the method, the route (e.g. "/users/:id", or nothing for unknown endpoints), the status, the body size, the latency and the remote address of its request.<br><br>
+ *
+ * Entries are handed to a dedicated thread through a preallocated ring buffer, which writes them to the file in batches: logging doesn't allocate nor wait for the disk.
+ * If the writer can't keep up and the ring buffer is full, entries are dropped instead of slowing the requests down.
+ */
+public final class AccessLog {
+
+    private final Path file;
+    private final Format format;
+    private final int sampling;
+    private final int bufferSize;
+
+    private AccessLog(Path file, Format format, int sampling, int bufferSize) {
+        this.file = file;
+        this.format = format;
+        this.sampling = sampling;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Returns a new builder of access log settings
+     *
+     * @param file The file entries are appended to; it is created if it doesn't exist
+     * @return A {@link Builder}
+     */
+    public static @NotNull Builder builder(@NotNull Path file) {
+        return new Builder(file);
+    }
+
+    /**
+     * Returns the file entries are appended to
+     *
+     * @return A {@link Path}
+     */
+    public @NotNull Path file() {
+        return this.file;
+    }
+
+    /**
+     * Returns the {@linkplain Format format} of the entries
+     *
+     * @return A {@link Format}
+     */
+    public @NotNull Format format() {
+        return this.format;
+    }
+
+    /**
+     * Returns the sampling rate of the entries: one response out of this number is logged (randomly), except server errors which are always logged
+     *
+     * @return A rate; 1 if all responses are logged
+     */
+    public int sampling() {
+        return this.sampling;
+    }
+
+    /**
+     * Returns the number of entries the ring buffer can hold before dropping new ones
+     *
+     * @return A power of two
+     */
+    public int bufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Represents the formats of the access log entries.
+     */
+    public enum Format {
+
+        /**
+         * One JSON object per line, e.g.:<br>
+         * <code>{"time":1760731640123,"method":"GET","route":"/users/:id","status":200,"bytes":27,"latency_ns":48210,"remote":"127.0.0.1:52814"}</code><br>
+         * The time is in milliseconds since the epoch, and the route is <code>null</code> for unknown endpoints. Methods longer than 64 chars and routes longer than 1024 are truncated.
+         */
+        JSON_LINES,
+        /**
+         * Fixed-layout big-endian records: the record length (short, including itself), the time (long, milliseconds since the epoch), the latency (long, nanoseconds),
+         * the body size (long), the status (short), the method (byte length + ASCII; at most 64 chars), the route (short length + UTF-8; at most 1024 chars, empty for unknown endpoints),
+         * and the remote address (byte length of 0, 4 or 16 + address bytes + unsigned short port).
+         */
+        BINARY
+
+    }
+
+    /**
+     * The builder of {@linkplain AccessLog access log settings}.<br>
+     * By default, entries are JSON lines, all responses are logged, and the ring buffer holds 16384 entries.
+     */
+    public static final class Builder implements IBuilder<AccessLog> {
+
+        private final Path file;
+        private Format format = Format.JSON_LINES;
+        private int sampling = 1;
+        private int bufferSize = 16384;
+
+        private Builder(Path file) {
+            this.file = file;
+        }
+
+        /**
+         * Sets the {@linkplain Format format} of the entries
+         *
+         * @param format A {@link Format}
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder format(@NotNull Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Sets the sampling rate of the entries: one response out of this number is logged, except server errors
+         *
+         * @param sampling A rate; 1 to log all responses
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder sampling(int sampling) {
+            this.sampling = sampling;
+            return this;
+        }
+
+        /**
+         * Sets the number of entries the ring buffer can hold
+         *
+         * @param bufferSize A power of two
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        @Override
+        public AccessLog build() {
+            if (this.sampling < 1) {
+                throw new BuilderException(this.getClass(), "sampling");
+            }
+
+            if (this.bufferSize < 2 || Integer.bitCount(this.bufferSize) != 1) {
+                throw new BuilderException(this.getClass(), "bufferSize");
+            }
+
+            return new AccessLog(this.file, this.format, this.sampling, this.bufferSize);
+        }
+
+    }
+
+}
@@ -0,0 +1,209 @@
+package fr.astfaster.hermeus.api.server;
+
+import fr.astfaster.hermeus.api.util.builder.BuilderException;
+import fr.astfaster.hermeus.api.util.builder.IBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents the compression settings of responses (gzip or deflate, depending on the "Accept-Encoding" header of the request).<br>
+ * Settings are defined on the {@linkplain HermeusServer.Builder#compression(Compression) server}, and can be overridden by a {@linkplain HermeusRouter#compression(Compression) router} or a {@linkplain HermeusRouter.RegisteredHandler#compression(Compression) handler}.<br><br>
+ *
+ * Content types can be given as "type/subtype" or "type/*".
+ */
+public final class Compression {
+
+    private static final Compression DISABLED = new Compression(false, 0, 0, List.of(), List.of());
+
+    private final boolean enabled;
+    private final int level;
+    private final int threshold;
+    private final List<String> contentTypes;
+    private final List<String> excludedContentTypes;
+
+    private Compression(boolean enabled, int level, int threshold, List<String> contentTypes, List<String> excludedContentTypes) {
+        this.enabled = enabled;
+        this.level = level;
+        this.threshold = threshold;
+        this.contentTypes = contentTypes;
+        this.excludedContentTypes = excludedContentTypes;
+    }
+
+    /**
+     * Returns the settings which disable compression
+     *
+     * @return A disabled {@link Compression}
+     */
+    public static @NotNull Compression disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Returns a new builder of compression settings
+     *
+     * @return A {@link Builder}
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks whether the compression is enabled
+     *
+     * @return <code>true</code> if responses can be compressed
+     */
+    public boolean enabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Returns the compression level
+     *
+     * @return A level between 1 (fastest) and 9 (smallest)
+     */
+    public int level() {
+        return this.level;
+    }
+
+    /**
+     * Returns the minimum size of the responses to compress.<br>
+     * It only applies to responses with a known size: {@linkplain HermeusResponseStream streamed responses} are always compressed.
+     *
+     * @return A size in bytes
+     */
+    public int threshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Returns the content types which are compressed
+     *
+     * @return A list of content types; an empty list means all the content types which are not excluded
+     */
+    public @NotNull List<String> contentTypes() {
+        return this.contentTypes;
+    }
+
+    /**
+     * Returns the content types which are never compressed, usually because they are already compressed (e.g. "image/png")
+     *
+     * @return A list of content types
+     */
+    public @NotNull List<String> excludedContentTypes() {
+        return this.excludedContentTypes;
+    }
+
+    /**
+     * Checks whether a response with a given content type can be compressed.
+     *
+     * @param contentType The "Content-Type" header of the response (e.g. "text/html; charset=UTF-8")
+     * @return <code>true</code> if the compression is enabled and the content type is allowed
+     */
+    public boolean compressible(@Nullable CharSequence contentType) {
+        if (!this.enabled) {
+            return false;
+        }
+
+        if (contentType == null) {
+            return this.contentTypes.isEmpty();
+        }
+
+        final String type = contentType.toString();
+        final int parameters = type.indexOf(';');
+        final String mediaType = (parameters == -1 ? type : type.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+
+        return !matches(this.excludedContentTypes, mediaType) && (this.contentTypes.isEmpty() || matches(this.contentTypes, mediaType));
+    }
+
+    private static boolean matches(List<String> patterns, String mediaType) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith("/*") ? mediaType.startsWith(pattern.substring(0, pattern.length() - 1)) : pattern.equals(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The builder of {@linkplain Compression compression settings}.<br>
+     * By default, text, JSON, JavaScript and XML responses of 1 KiB or more are compressed with the level 6.
+     */
+    public static final class Builder implements IBuilder<Compression> {
+
+        private int level = 6;
+        private int threshold = 1024;
+        private List<String> contentTypes = List.of("text/*", "application/json", "application/javascript", "application/xml", "image/svg+xml");
+        private List<String> excludedContentTypes = List.of("image/png", "image/jpeg", "image/gif", "image/webp", "video/*", "audio/*", "font/woff2", "application/zip", "application/gzip");
+
+        private Builder() {}
+
+        /**
+         * Sets the compression level
+         *
+         * @param level A level between 1 (fastest) and 9 (smallest)
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder level(int level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the minimum size of the responses to compress
+         *
+         * @param threshold A size in bytes
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder threshold(int threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the content types which are compressed
+         *
+         * @param contentTypes The content types; none to compress all the content types which are not excluded
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder contentTypes(@NotNull String... contentTypes) {
+            this.contentTypes = normalize(contentTypes);
+            return this;
+        }
+
+        /**
+         * Sets the content types which are never compressed
+         *
+         * @param contentTypes The content types
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder excludedContentTypes(@NotNull String... contentTypes) {
+            this.excludedContentTypes = normalize(contentTypes);
+            return this;
+        }
+
+        @Override
+        public Compression build() {
+            if (this.level < 1 || this.level > 9) {
+                throw new BuilderException(this.getClass(), "level");
+            }
+
+            if (this.threshold < 0) {
+                throw new BuilderException(this.getClass(), "threshold");
+            }
+
+            return new Compression(true, this.level, this.threshold, this.contentTypes, this.excludedContentTypes);
+        }
+
+        private static List<String> normalize(String... contentTypes) {
+            return Arrays.stream(contentTypes)
+                    .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package fr.astfaster.hermeus.api.server;
+
+/**
+ * Represents where {@linkplain HermeusMiddleware middlewares} and {@linkplain HermeusHandler handlers} are executed.<br>
+ * Handlers doing blocking work (JDBC, file I/O...) must not run on the event loop, or they will stall every connection handled by that loop.
+ */
+public enum ExecutionMode {
+
+    /**
+     * The handler runs directly on the Netty event loop which received the request.<br>
+     * It is the fastest mode, but the handler must never block.
+     */
+    EVENT_LOOP,
+
+    /**
+     * The handler runs on a new virtual thread.<br>
+     * On runtimes without virtual threads, it runs on a new (cached) platform thread instead.
+     */
+    VIRTUAL_THREAD,
+
+    /**
+     * The handler runs on a bounded pool of platform threads.<br>
+     * Its size is configured with {@link HermeusServer.Builder#workerPoolSize(int)}.
+     */
+    WORKER_POOL
+
+}
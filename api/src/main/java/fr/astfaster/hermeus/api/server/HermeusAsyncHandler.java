@@ -0,0 +1,25 @@
+package fr.astfaster.hermeus.api.server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents an asynchronous handler which is executed when a request is received on an endpoint.<br>
+ * The handler returns immediately and sends its {@linkplain HermeusResponse response} whenever it is ready, so no thread is held while waiting (e.g. for a downstream service).
+ */
+@FunctionalInterface
+public interface HermeusAsyncHandler {
+
+    /**
+     * This method is triggered when a request is received.<br>
+     * The returned stage must complete once the response has been sent.
+     * If it completes exceptionally, the connection is closed; if it is still running when the connection is closed or when it times out, it gets cancelled, and the request must not be used anymore.
+     *
+     * @param request The received request
+     * @param response The response to send back
+     * @return A {@link CompletionStage} completed when the request is handled
+     */
+    @NotNull CompletionStage<?> handle(@NotNull HermeusRequest request, @NotNull HermeusResponse response);
+
+}
@@ -0,0 +1,23 @@
+package fr.astfaster.hermeus.api.server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents an asynchronous middleware which is executed before a {@linkplain HermeusHandler handler}.<br>
+ * It is executed after the synchronous {@linkplain HermeusMiddleware middleware} (if any), and is useful for checks relying on a remote service (e.g. token introspection).
+ */
+@FunctionalInterface
+public interface HermeusAsyncMiddleware {
+
+    /**
+     * This method is executed when the middleware is triggered.
+     *
+     * @param request The incoming request to handle
+     * @param response The response to send back to the request
+     * @return A {@link CompletionStage} completed with <code>true</code> if the {@linkplain HermeusHandler handler} will be executed or not.
+     */
+    @NotNull CompletionStage<Boolean> process(@NotNull HermeusRequest request, @NotNull HermeusResponse response);
+
+}
@@ -3,6 +3,7 @@ package fr.astfaster.hermeus.api.server;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
 import fr.astfaster.hermeus.api.server.http.HttpParameter;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -11,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * Represents a received HTTP request.
@@ -70,6 +72,17 @@ public interface HermeusRequest {
      */
     @NotNull ByteBuf body();
 
+    /**
+     * Tries to decode the body of the request with the {@linkplain HermeusCodec codec} of its "Content-Type" header.<br>
+     * A "415 Unsupported Media Type" response is sent if no codec handles this content type, and a "400 Bad Request" response if the body is malformed.
+     *
+     * @param type The class of the object to decode from the body
+     * @return The decoded object; or <code>null</code> if the body couldn't be decoded
+     * @param <T> The type of the object to return
+     * @see Hermeus#codec(HermeusCodec)
+     */
+    <T> T entity(@NotNull Class<T> type);
+
     /**
      * Tries to convert the body of the request to a JSON with a custom deserializer.
      *
@@ -89,6 +102,29 @@ public interface HermeusRequest {
      */
     <T> T jsonBody(@NotNull Class<T> objectClass);
 
+    /**
+     * Iterates over the elements of a JSON array body with a custom deserializer.<br>
+     * Elements are deserialized one at a time, as they are iterated, so the whole array is never held in memory as objects.
+     * A malformed body ends the iteration and sends a "400 Bad Request" response.
+     * The iterator must be consumed before the end of the handling of the request.
+     *
+     * @param deserializer The {@linkplain Gson deserializer} to use
+     * @param elementClass The class of the elements of the array
+     * @return An {@link Iterator} over the deserialized elements; or <code>null</code> if the body is not a JSON
+     * @param <T> The type of the elements to return
+     */
+    <T> Iterator<T> jsonArrayBody(@NotNull Gson deserializer, @NotNull Class<T> elementClass);
+
+    /**
+     * Iterates over the elements of a JSON array body with the {@linkplain Hermeus#defaultSerializer() default deserializer}.
+     *
+     * @param elementClass The class of the elements of the array
+     * @return An {@link Iterator} over the deserialized elements; or <code>null</code> if the body is not a JSON
+     * @param <T> The type of the elements to return
+     * @see #jsonArrayBody(Gson, Class)
+     */
+    <T> Iterator<T> jsonArrayBody(@NotNull Class<T> elementClass);
+
     /**
      * Tries to convert the body of the request to a JSON with a custom deserializer
      *
@@ -2,16 +2,21 @@ package fr.astfaster.hermeus.api.server;
 
 import com.google.gson.Gson;
 import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Path;
+import java.util.Iterator;
+
 /**
  * Represents a response to send back to the client when a {@linkplain HermeusRequest request} is received.
  */
 public interface HermeusResponse {
 
     /**
-     * Send a classic HTTP response to the client.
+     * Send a classic HTTP response to the client.<br>
+     * The content is sent without being copied, so the array must not be modified afterward.
      *
      * @param content The content of the response (as bytes)
      * @param contentType The type of the content in the response
@@ -19,6 +24,34 @@ public interface HermeusResponse {
      */
     void classic(byte[] content, @NotNull String contentType, @NotNull HttpResponseStatus status);
 
+    /**
+     * Send a file to the client.<br>
+     * The file is sent without being loaded in memory, and the response honours conditional ("If-None-Match", "If-Modified-Since") and "Range" requests.
+     * A "404 Not Found" response is sent if the file doesn't exist.
+     *
+     * @param file The path of the file to send
+     * @param contentType The type of the content in the response
+     */
+    void file(@NotNull Path file, @NotNull String contentType);
+
+    /**
+     * Send a file to the client; its content type is guessed from its name.
+     *
+     * @param file The path of the file to send
+     * @see #file(Path, String)
+     */
+    void file(@NotNull Path file);
+
+    /**
+     * Starts a {@linkplain HermeusResponseStream streamed response} to the client.<br>
+     * The status and the headers are sent immediately, then the body is written chunk by chunk.
+     *
+     * @param contentType The type of the content in the response
+     * @param status The status code to return
+     * @return The {@link HermeusResponseStream} used to write the body
+     */
+    @NotNull HermeusResponseStream stream(@NotNull String contentType, @NotNull HttpResponseStatus status);
+
     /**
      * Send a text response to the client.
      *
@@ -77,6 +110,65 @@ public interface HermeusResponse {
      */
     <T> void json(@NotNull Gson serializer, @NotNull T object);
 
+    /**
+     * Send an object to the client, encoded with the {@linkplain HermeusCodec codec} negotiated from the "Accept" header of the request.<br>
+     * A "406 Not Acceptable" response is sent if the client accepts none of the registered codecs.
+     *
+     * @param object The object to encode
+     * @param status The status code to return
+     * @see Hermeus#codec(HermeusCodec)
+     */
+    void entity(@NotNull Object object, @NotNull HttpResponseStatus status);
+
+    /**
+     * Send an object to the client, encoded with the {@linkplain HermeusCodec codec} negotiated from the "Accept" header of the request.
+     *
+     * @param object The object to encode
+     * @see #entity(Object, HttpResponseStatus)
+     */
+    void entity(@NotNull Object object);
+
+    /**
+     * Streams a JSON array to the client with a custom serializer.<br>
+     * Elements are serialized one by one into the chunks of a {@linkplain #stream(String, HttpResponseStatus) streamed response}, so the whole array is never held in memory.
+     * When the client reads slower than the elements are serialized, the iteration is paused and resumed later on the thread of the connection.
+     *
+     * @param serializer The serializer used to serialize the elements
+     * @param elements The elements of the array
+     * @param status The status code to return
+     * @param <T> The type of the elements to convert
+     */
+    <T> void jsonArray(@NotNull Gson serializer, @NotNull Iterator<T> elements, @NotNull HttpResponseStatus status);
+
+    /**
+     * Streams a JSON array to the client with a custom serializer.
+     *
+     * @param serializer The serializer used to serialize the elements
+     * @param elements The elements of the array
+     * @param <T> The type of the elements to convert
+     * @see #jsonArray(Gson, Iterator, HttpResponseStatus)
+     */
+    <T> void jsonArray(@NotNull Gson serializer, @NotNull Iterator<T> elements);
+
+    /**
+     * Streams a JSON array to the client with the {@linkplain Hermeus#defaultSerializer() default serializer}.
+     *
+     * @param elements The elements of the array
+     * @param status The status code to return
+     * @param <T> The type of the elements to convert
+     * @see #jsonArray(Gson, Iterator, HttpResponseStatus)
+     */
+    <T> void jsonArray(@NotNull Iterator<T> elements, @NotNull HttpResponseStatus status);
+
+    /**
+     * Streams a JSON array to the client with the {@linkplain Hermeus#defaultSerializer() default serializer}.
+     *
+     * @param elements The elements of the array
+     * @param <T> The type of the elements to convert
+     * @see #jsonArray(Gson, Iterator, HttpResponseStatus)
+     */
+    <T> void jsonArray(@NotNull Iterator<T> elements);
+
     /**
      * Send a JSON response to the client with the {@linkplain Hermeus#defaultSerializer() default serializer}.
      *
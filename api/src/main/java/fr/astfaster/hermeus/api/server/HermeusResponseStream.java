@@ -0,0 +1,63 @@
+package fr.astfaster.hermeus.api.server;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a response whose body is sent progressively (with chunked transfer encoding).<br>
+ * It allows sending large bodies with a constant memory usage: the client receives the first bytes as soon as they are flushed.<br><br>
+ *
+ * Written chunks are queued in memory until the connection can send them.
+ * To avoid queueing too much, check {@link #writable()} and wait for {@link #onWritable(Runnable)} before writing more.
+ * All the methods can be called from any thread.
+ */
+public interface HermeusResponseStream {
+
+    /**
+     * Writes a chunk of the body.<br>
+     * The stream takes ownership of the buffer, it will be released once sent.
+     *
+     * @param chunk The chunk to write
+     */
+    void write(@NotNull ByteBuf chunk);
+
+    /**
+     * Writes a chunk of the body.
+     *
+     * @param chunk The chunk to write (as bytes)
+     */
+    void write(byte[] chunk);
+
+    /**
+     * Writes a chunk of the body, encoded in UTF-8.
+     *
+     * @param chunk The chunk to write (as {@link CharSequence})
+     */
+    void write(@NotNull CharSequence chunk);
+
+    /**
+     * Sends the written chunks to the client.
+     */
+    void flush();
+
+    /**
+     * Ends the response; the written chunks are flushed.
+     */
+    void end();
+
+    /**
+     * Check whether chunks can be written without growing the outbound buffer above its limit.
+     *
+     * @return <code>true</code> if more chunks can be written; <code>false</code> otherwise
+     */
+    boolean writable();
+
+    /**
+     * Registers a callback executed once the stream becomes {@linkplain #writable() writable}.<br>
+     * If the stream is already writable, the callback is executed immediately.
+     *
+     * @param callback The callback to execute
+     */
+    void onWritable(@NotNull Runnable callback);
+
+}
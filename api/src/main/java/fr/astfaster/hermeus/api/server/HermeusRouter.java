@@ -4,6 +4,8 @@ import io.netty.handler.codec.http.HttpMethod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+
 /**
  * Represents a requests router.<br>
  * A router is mounted on a path (e.g. "/v1") and allows you to register {@linkplain HermeusHandler handlers} on sub-paths (e.g. "/test" -> "/v1/test").
@@ -26,6 +28,30 @@ public interface HermeusRouter {
      */
     void middleware(@NotNull HermeusMiddleware middleware);
 
+    /**
+     * Sets the default {@linkplain HermeusAsyncMiddleware asynchronous middleware} that will be triggered before all registered {@linkplain HermeusHandler handlers}.<br>
+     * Warning: it won't be triggered if a {@linkplain HermeusHandler handler} has a custom {@linkplain HermeusAsyncMiddleware asynchronous middleware}.
+     *
+     * @param middleware The new default {@linkplain HermeusAsyncMiddleware asynchronous middleware}
+     */
+    void asyncMiddleware(@NotNull HermeusAsyncMiddleware middleware);
+
+    /**
+     * Sets the {@linkplain ExecutionMode execution mode} of the router's {@linkplain HermeusHandler handlers}.<br>
+     * Sub-routers inherit it, and a {@linkplain RegisteredHandler registered handler} can override it.
+     *
+     * @param mode The {@link ExecutionMode} to use
+     */
+    void executionMode(@NotNull ExecutionMode mode);
+
+    /**
+     * Sets the {@linkplain Compression compression settings} of the router's responses.<br>
+     * Sub-routers inherit them, and a {@linkplain RegisteredHandler registered handler} can override them.
+     *
+     * @param compression The {@link Compression} to use
+     */
+    void compression(@NotNull Compression compression);
+
     /**
      * Register a {@linkplain HermeusHandler handler} for {@link HttpMethod#GET}
      *
@@ -72,7 +98,9 @@ public interface HermeusRouter {
     @NotNull RegisteredHandler delete(@NotNull String path, @Nullable HermeusHandler handler);
 
     /**
-     * Register a {@linkplain HermeusHandler handler} for a given {@link HttpMethod}.
+     * Register a {@linkplain HermeusHandler handler} for a given {@link HttpMethod}.<br>
+     * Besides static segments, a path can contain ":name" segments (matching one segment) and end with a "*name" segment (matching the rest of the path).
+     * When several handlers could match a request, static segments win over ":name" segments, which win over "*name" segments.
      *
      * @param method The HTTP method which the handler is waiting for
      * @param path The path linked to the handler; paths like "/:id" will be dynamics, so the uri part will count as a parameter
@@ -81,6 +109,41 @@ public interface HermeusRouter {
      */
     @NotNull RegisteredHandler handler(@NotNull HttpMethod method, @NotNull String path, @Nullable HermeusHandler handler);
 
+    /**
+     * Register an {@linkplain HermeusAsyncHandler asynchronous handler} for a given {@link HttpMethod}.<br>
+     * Paths follow the same rules as {@link #handler(HttpMethod, String, HermeusHandler)}.
+     *
+     * @param method The HTTP method which the handler is waiting for
+     * @param path The path linked to the handler
+     * @param handler The {@linkplain HermeusAsyncHandler asynchronous handler} to register
+     * @return A {@link RegisteredHandler} object
+     */
+    @NotNull RegisteredHandler asyncHandler(@NotNull HttpMethod method, @NotNull String path, @NotNull HermeusAsyncHandler handler);
+
+    /**
+     * Register a {@linkplain HermeusStreamHandler stream handler} for a given {@link HttpMethod}.<br>
+     * Paths follow the same rules as {@link #handler(HttpMethod, String, HermeusHandler)}.
+     * Only the synchronous {@linkplain HermeusMiddleware middleware} is triggered before a stream handler.
+     *
+     * @param method The HTTP method which the handler is waiting for
+     * @param path The path linked to the handler
+     * @param handler The {@linkplain HermeusStreamHandler stream handler} to register
+     * @return A {@link RegisteredHandler} object
+     */
+    @NotNull RegisteredHandler streamHandler(@NotNull HttpMethod method, @NotNull String path, @NotNull HermeusStreamHandler handler);
+
+    /**
+     * Serves the files of a directory on a path, for {@link HttpMethod#GET} and {@link HttpMethod#HEAD}.<br>
+     * E.g. with "/assets" and "/var/www", "/assets/css/app.css" sends "/var/www/css/app.css". A directory sends its "index.html" file.<br>
+     * The handlers run in the {@linkplain ExecutionMode#WORKER_POOL worker pool}, as looking up the files blocks.
+     *
+     * @param path The path on which the files are served
+     * @param directory The directory containing the files
+     * @return The {@link RegisteredHandler} of {@link HttpMethod#GET} requests
+     * @see HermeusResponse#file(Path)
+     */
+    @NotNull RegisteredHandler files(@NotNull String path, @NotNull Path directory);
+
     /**
      * Returns the path on which the router is mounted on.
      *
@@ -108,12 +171,28 @@ public interface HermeusRouter {
         @NotNull String path();
 
         /**
-         * Returns the registered handler
+         * Returns the registered handler.<br>
+         * For an {@linkplain HermeusAsyncHandler asynchronous handler}, it is a handler starting it without waiting for its completion.
+         * For a {@linkplain HermeusStreamHandler stream handler}, it is a handler giving it the whole body as a single chunk.
          *
          * @return A {@linkplain HermeusHandler handler} instance
          */
         @NotNull HermeusHandler handler();
 
+        /**
+         * Returns the registered asynchronous handler
+         *
+         * @return A {@linkplain HermeusAsyncHandler asynchronous handler}; or <code>null</code> if the handler is synchronous
+         */
+        @Nullable HermeusAsyncHandler asyncHandler();
+
+        /**
+         * Returns the registered stream handler
+         *
+         * @return A {@linkplain HermeusStreamHandler stream handler}; or <code>null</code> if the handler doesn't stream the request body
+         */
+        @Nullable HermeusStreamHandler streamHandler();
+
         /**
          * Returns the middleware to trigger before the {@linkplain HermeusHandler handler}
          *
@@ -128,6 +207,68 @@ public interface HermeusRouter {
          */
         void middleware(@Nullable HermeusMiddleware middleware);
 
+        /**
+         * Returns the asynchronous middleware to trigger before the {@linkplain HermeusHandler handler}
+         *
+         * @return A {@linkplain HermeusAsyncMiddleware asynchronous middleware}; or <code>null</code> if no asynchronous middleware is set
+         */
+        @Nullable HermeusAsyncMiddleware asyncMiddleware();
+
+        /**
+         * Sets the asynchronous middleware to trigger before the {@linkplain HermeusHandler handler}
+         *
+         * @param middleware The {@linkplain HermeusAsyncMiddleware asynchronous middleware} instance
+         */
+        void asyncMiddleware(@Nullable HermeusAsyncMiddleware middleware);
+
+        /**
+         * Returns the {@linkplain ExecutionMode execution mode} of the handler
+         *
+         * @return An {@link ExecutionMode}; or <code>null</code> if the mode of the router is used
+         */
+        @Nullable ExecutionMode executionMode();
+
+        /**
+         * Sets the {@linkplain ExecutionMode execution mode} of the handler
+         *
+         * @param mode The {@link ExecutionMode}; or <code>null</code> to use the mode of the router
+         */
+        void executionMode(@Nullable ExecutionMode mode);
+
+        /**
+         * Returns the {@linkplain Compression compression settings} of the handler's responses
+         *
+         * @return A {@link Compression}; or <code>null</code> if the settings of the router are used
+         */
+        @Nullable Compression compression();
+
+        /**
+         * Sets the {@linkplain Compression compression settings} of the handler's responses
+         *
+         * @param compression The {@link Compression}; or <code>null</code> to use the settings of the router
+         */
+        void compression(@Nullable Compression compression);
+
+        /**
+         * Returns the {@linkplain ResponseCache cache settings} of the handler's responses
+         *
+         * @return A {@link ResponseCache}; or <code>null</code> if responses are not cached
+         */
+        @Nullable ResponseCache cache();
+
+        /**
+         * Sets the {@linkplain ResponseCache cache settings} of the handler's responses.<br>
+         * The responses cached with previous settings are discarded.
+         *
+         * @param cache The {@link ResponseCache}; or <code>null</code> to stop caching responses
+         */
+        void cache(@Nullable ResponseCache cache);
+
+        /**
+         * Discards the cached responses of the handler, e.g. after a change of the data they were built from.
+         */
+        void invalidateCache();
+
     }
 
 }
@@ -1,9 +1,14 @@
 package fr.astfaster.hermeus.api.server;
 
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import fr.astfaster.hermeus.api.server.metrics.HermeusMetrics;
 import fr.astfaster.hermeus.api.util.builder.IBuilder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Represents an HTTP server listening for incoming requests.
@@ -35,6 +40,36 @@ public interface HermeusServer {
      */
     @NotNull HermeusRouter router();
 
+    /**
+     * Returns the {@linkplain HermeusMetrics metrics} of the server
+     *
+     * @return A {@link HermeusMetrics}; or <code>null</code> if the server doesn't record them
+     * @see Builder#metrics(boolean)
+     */
+    @Nullable HermeusMetrics metrics();
+
+    /**
+     * Returns the {@linkplain HermeusCodec codecs} used by the server, in their preference order: the ones {@linkplain Builder#codec(HermeusCodec) registered on the server}, then the ones registered on Hermeus.
+     *
+     * @return A list of {@linkplain HermeusCodec codecs}
+     */
+    @NotNull List<HermeusCodec> codecs();
+
+    /**
+     * Returns the I/O transport the server runs on
+     *
+     * @return A {@link Transport}; or <code>null</code> if the server was never enabled
+     */
+    @Nullable Transport transport();
+
+    /**
+     * Reloads the certificate chain and the private key of the server from their files.<br>
+     * New connections use them right away; established connections keep the previous ones.
+     *
+     * @throws fr.astfaster.hermeus.api.HermeusException If TLS is not configured, or the files couldn't be loaded (the previous ones are then kept)
+     */
+    void reloadTls();
+
     /**
      * Check whether the server is enabled or not.
      *
@@ -73,6 +108,204 @@ public interface HermeusServer {
          */
         @NotNull Builder address(int port);
 
+        /**
+         * Sets whether HTTP/1.1 persistent connections are allowed.<br>
+         * When enabled (default), a connection is kept open after a response as long as the client asks for it
+         * (HTTP/1.1 without "Connection: close", or HTTP/1.0 with "Connection: keep-alive").
+         *
+         * @param keepAlive <code>true</code> to allow persistent connections; <code>false</code> to close every connection after its response
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder keepAlive(boolean keepAlive);
+
+        /**
+         * Sets the time after which a connection without any read or write is closed.<br>
+         * A zero or negative duration disables the idle timeout. Default: 60 seconds.
+         *
+         * @param timeout The idle timeout of a connection
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder idleTimeout(@NotNull Duration timeout);
+
+        /**
+         * Sets the maximum number of requests served on a single persistent connection.<br>
+         * The response to the last allowed request is sent with "Connection: close".
+         * A zero or negative value means no limit (default).
+         *
+         * @param maxRequests The maximum number of requests per connection
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder maxRequestsPerConnection(int maxRequests);
+
+        /**
+         * Sets the default {@linkplain ExecutionMode execution mode} of the handlers.<br>
+         * It is used when neither the handler nor its routers define one. Default: {@link ExecutionMode#EVENT_LOOP}.
+         *
+         * @param mode The default {@link ExecutionMode}
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder executionMode(@NotNull ExecutionMode mode);
+
+        /**
+         * Sets the number of threads of the pool used by {@link ExecutionMode#WORKER_POOL} handlers. Default: 200.
+         *
+         * @param size The size of the pool
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder workerPoolSize(int size);
+
+        /**
+         * Sets the maximum time given to an {@linkplain HermeusAsyncHandler asynchronous handler}, or to a handler not running on the event loop, to send its response, counted from the start of the handler.<br>
+         * After that, the client receives a "503 Service Unavailable" response and the handler is cancelled.
+         * A zero or negative duration disables the timeout. Default: 30 seconds.
+         *
+         * @param timeout The timeout of a handler
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder handlerTimeout(@NotNull Duration timeout);
+
+        /**
+         * Sets the maximum size of a request body buffered in memory.<br>
+         * Larger requests are rejected with "413 Request Entity Too Large", unless they are received by a {@linkplain HermeusStreamHandler stream handler}.
+         * Default: 16 MiB.
+         *
+         * @param maxContentLength The maximum size of a request body (in bytes)
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder maxContentLength(int maxContentLength);
+
+        /**
+         * Sets the default {@linkplain Compression compression settings} of the responses.<br>
+         * They are used when neither the handler nor its routers define some. Default: {@link Compression#disabled()}.
+         *
+         * @param compression The default {@link Compression}
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder compression(@NotNull Compression compression);
+
+        /**
+         * Sets whether gzip or deflate request bodies (with a "Content-Encoding" header) are decompressed before being given to the handlers.<br>
+         * The {@linkplain #maxContentLength(int) maximum size} applies to the decompressed body. Default: <code>true</code>.
+         *
+         * @param decompress <code>true</code> to decompress request bodies
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder requestDecompression(boolean decompress);
+
+        /**
+         * Sets whether HTTP/2 is accepted besides HTTP/1.<br>
+         * Cleartext connections switch to HTTP/2 with an "Upgrade: h2c" request, or directly when the client starts with the HTTP/2 preface (prior knowledge).
+         * {@linkplain #tls(Tls) TLS} connections negotiate it with ALPN.
+         * Each HTTP/2 stream is handled as a request of its own, so one connection carries many concurrent requests. Default: <code>false</code>.
+         *
+         * @param http2 <code>true</code> to accept HTTP/2
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder http2(boolean http2);
+
+        /**
+         * Sets the I/O {@linkplain Transport transport} of the server.<br>
+         * By default, the fastest transport available on the system is used: {@link Transport#IO_URING}, {@link Transport#EPOLL}, {@link Transport#KQUEUE}, and then {@link Transport#NIO}.
+         *
+         * @param transport The {@link Transport}; or <code>null</code> to detect it. The server fails to start if it is not available
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder transport(@Nullable Transport transport);
+
+        /**
+         * Sets the number of threads accepting the connections of the server. Default: one per {@linkplain #acceptors(int) acceptor}.
+         *
+         * @param threads A number of threads; 0 for the default
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder bossThreads(int threads);
+
+        /**
+         * Sets the number of threads handling the I/O (and {@linkplain ExecutionMode#EVENT_LOOP event loop handlers}) of the server's connections.
+         *
+         * @param threads A number of threads; 0 for twice the number of cores (default)
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder workerThreads(int threads);
+
+        /**
+         * Sets whether the server shares its threads with the other servers of the {@linkplain fr.astfaster.hermeus.api.Hermeus Hermeus instance} using this option and the same transport.<br>
+         * The first of these servers to be enabled decides of the numbers of threads; they are stopped once the last one is disabled. Default: <code>false</code>.
+         *
+         * @param shared <code>true</code> to share the threads
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder sharedEventLoops(boolean shared);
+
+        /**
+         * Sets the number of sockets listening on the server's address, each on its own boss thread.<br>
+         * With several of them (SO_REUSEPORT), the kernel spreads the new connections between them, instead of a single thread accepting them all.
+         * Only native transports support it; a single socket is used with {@link Transport#NIO}. Default: 1.
+         *
+         * @param acceptors A number of sockets
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder acceptors(int acceptors);
+
+        /**
+         * Sets the {@linkplain SocketOptions socket options} of the server and of its connections. Default: {@link SocketOptions#defaults()}.
+         *
+         * @param options The {@link SocketOptions}
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder socketOptions(@NotNull SocketOptions options);
+
+        /**
+         * Sets whether the server records {@linkplain HermeusMetrics metrics} for each route: requests by status class, requests in flight, and latencies. Default: <code>false</code>.
+         *
+         * @param metrics <code>true</code> to record them
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder metrics(boolean metrics);
+
+        /**
+         * Sets the path on which the {@linkplain HermeusMetrics metrics} are served in the text format of Prometheus; metrics are then recorded. Default: none.
+         *
+         * @param path A path (e.g. "/metrics"); or <code>null</code> to not serve them
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder metricsEndpoint(@Nullable String path);
+
+        /**
+         * Sets the {@linkplain AccessLog access log settings} of the server; each response is then logged. Default: no access log.
+         *
+         * @param accessLog The {@link AccessLog} settings; or <code>null</code> to not log responses
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder accessLog(@Nullable AccessLog accessLog);
+
+        /**
+         * Sets the {@linkplain Tls TLS settings} of the server; all the connections are then secured.<br>
+         * With {@linkplain #http2(boolean) HTTP/2} enabled, the protocol is negotiated with ALPN ("h2" or "http/1.1"). Default: no TLS.
+         *
+         * @param tls The {@link Tls} settings; or <code>null</code> to disable TLS
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder tls(@Nullable Tls tls);
+
+        /**
+         * Sets the maximum number of concurrent streams (requests) on an HTTP/2 connection. Default: 1000.
+         *
+         * @param maxStreams The maximum number of concurrent streams
+         * @return This {@link Builder} instance
+         */
+        @NotNull Builder http2MaxConcurrentStreams(int maxStreams);
+
+        /**
+         * Registers a {@linkplain HermeusCodec codec} used by this server only, replacing the codec of the same media type registered on Hermeus, if there is one.<br>
+         * The codecs of the server are preferred over the ones of Hermeus, in their registration order. Default: only the codecs of Hermeus.
+         *
+         * @param codec The {@link HermeusCodec} to register
+         * @return This {@link Builder} instance
+         * @see fr.astfaster.hermeus.api.Hermeus#codec(HermeusCodec)
+         */
+        @NotNull Builder codec(@NotNull HermeusCodec codec);
+
     }
 
 }
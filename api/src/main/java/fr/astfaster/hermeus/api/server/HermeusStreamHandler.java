@@ -0,0 +1,72 @@
+package fr.astfaster.hermeus.api.server;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a handler receiving the body of a request chunk by chunk, instead of fully buffered in memory.<br>
+ * It is useful for large uploads which are processed or spooled (e.g. to a file) as they arrive.<br><br>
+ *
+ * The handler is triggered as soon as the headers of the request are received; {@link HermeusRequest#body()} is then empty.
+ * Its {@linkplain BodyReader reader} is always called on the event loop, so it must not block: use {@link BodyStream#pause()} to stop reading from the client while a chunk is being processed elsewhere.
+ */
+@FunctionalInterface
+public interface HermeusStreamHandler {
+
+    /**
+     * This method is triggered when the headers of a request are received
+     *
+     * @param request The received request
+     * @param response The response to send back
+     * @param stream The {@linkplain BodyStream stream} used to control the flow of the body
+     * @return The {@linkplain BodyReader reader} which will receive the body
+     */
+    @NotNull BodyReader handle(@NotNull HermeusRequest request, @NotNull HermeusResponse response, @NotNull BodyStream stream);
+
+    /**
+     * Represents the receiver of a request body.
+     */
+    interface BodyReader {
+
+        /**
+         * Called when a chunk of the body is received.<br>
+         * The chunk is released once this method returns: {@linkplain ByteBuf#retain() retain} it to use it later.
+         *
+         * @param chunk The received chunk
+         */
+        void content(@NotNull ByteBuf chunk);
+
+        /**
+         * Called when the whole body has been received.<br>
+         * The response is usually sent from here.
+         */
+        void end();
+
+        /**
+         * Called if the body couldn't be fully received (e.g. the connection was closed).
+         *
+         * @param cause The cause of the failure
+         */
+        default void failed(@NotNull Throwable cause) {}
+
+    }
+
+    /**
+     * Represents the flow control of a request body.<br>
+     * Its methods can be called from any thread.
+     */
+    interface BodyStream {
+
+        /**
+         * Stop reading the body from the client; data will be buffered by the operating system, then the client will slow down.
+         */
+        void pause();
+
+        /**
+         * Resume reading the body from the client.
+         */
+        void resume();
+
+    }
+
+}
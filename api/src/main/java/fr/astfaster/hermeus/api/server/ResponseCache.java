@@ -0,0 +1,151 @@
+package fr.astfaster.hermeus.api.server;
+
+import fr.astfaster.hermeus.api.util.builder.BuilderException;
+import fr.astfaster.hermeus.api.util.builder.IBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the settings of the response cache of a {@linkplain HermeusRouter.RegisteredHandler registered handler}.<br>
+ * The encoded "200 OK" responses of <code>GET</code> requests are kept in memory, and served again without triggering the handler until they expire.
+ * Responses are identified by the URI of their request (path and query) and the values of its {@linkplain #keyHeaders() key headers}.<br><br>
+ *
+ * Each cached response gets an "ETag" header (unless the handler sets one), so that conditional requests ("If-None-Match") get a "304 Not Modified" response.
+ * Streamed responses, files, and responses with a "Set-Cookie" header or a "Cache-Control: no-store" / "private" header are not cached.
+ * Middlewares are still triggered before a cached response is sent.
+ */
+public final class ResponseCache {
+
+    private final Duration ttl;
+    private final long maxSize;
+    private final List<String> keyHeaders;
+    private final boolean precompress;
+
+    private ResponseCache(Duration ttl, long maxSize, List<String> keyHeaders, boolean precompress) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.keyHeaders = keyHeaders;
+        this.precompress = precompress;
+    }
+
+    /**
+     * Returns a new builder of cache settings
+     *
+     * @return A {@link Builder}
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns how long a response is kept
+     *
+     * @return A {@link Duration}
+     */
+    public @NotNull Duration ttl() {
+        return this.ttl;
+    }
+
+    /**
+     * Returns the maximum size of the cached responses; the least recently used ones are evicted beyond it
+     *
+     * @return A size in bytes
+     */
+    public long maxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the request headers identifying a response, besides its URI (e.g. "Accept" for a handler using {@link HermeusResponse#entity(Object)})
+     *
+     * @return A list of header names
+     */
+    public @NotNull List<String> keyHeaders() {
+        return this.keyHeaders;
+    }
+
+    /**
+     * Checks whether a gzip version of the responses is cached too, and sent to the clients accepting it
+     *
+     * @return <code>true</code> if responses are precompressed
+     */
+    public boolean precompress() {
+        return this.precompress;
+    }
+
+    /**
+     * The builder of {@linkplain ResponseCache cache settings}.<br>
+     * By default, responses are kept for one minute, in at most 16 MiB, and are not precompressed.
+     */
+    public static final class Builder implements IBuilder<ResponseCache> {
+
+        private Duration ttl = Duration.ofMinutes(1);
+        private long maxSize = 16 * 1024 * 1024;
+        private List<String> keyHeaders = List.of();
+        private boolean precompress;
+
+        private Builder() {}
+
+        /**
+         * Sets how long a response is kept
+         *
+         * @param ttl A {@link Duration}
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder ttl(@NotNull Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of the cached responses
+         *
+         * @param maxSize A size in bytes
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder maxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the request headers identifying a response, besides its URI
+         *
+         * @param headers The header names
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder keyHeaders(@NotNull String... headers) {
+            this.keyHeaders = Arrays.asList(headers.clone());
+            return this;
+        }
+
+        /**
+         * Sets whether a gzip version of the responses is cached too
+         *
+         * @param precompress <code>true</code> to precompress responses
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder precompress(boolean precompress) {
+            this.precompress = precompress;
+            return this;
+        }
+
+        @Override
+        public ResponseCache build() {
+            if (this.ttl.isNegative() || this.ttl.isZero()) {
+                throw new BuilderException(this.getClass(), "ttl");
+            }
+
+            if (this.maxSize <= 0) {
+                throw new BuilderException(this.getClass(), "maxSize");
+            }
+
+            return new ResponseCache(this.ttl, this.maxSize, List.copyOf(this.keyHeaders), this.precompress);
+        }
+
+    }
+
+}
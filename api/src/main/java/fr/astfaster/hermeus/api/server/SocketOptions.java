@@ -0,0 +1,335 @@
+package fr.astfaster.hermeus.api.server;
+
+import fr.astfaster.hermeus.api.util.builder.BuilderException;
+import fr.astfaster.hermeus.api.util.builder.IBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents the socket options of a {@linkplain HermeusServer server} and of its connections.<br>
+ * Sizes set to 0 keep the defaults of the system. Some options are only supported by native {@linkplain Transport transports}: they are ignored (with a warning) by the others.
+ */
+public final class SocketOptions {
+
+    private static final SocketOptions DEFAULTS = builder().build();
+
+    private final int backlog;
+    private final int receiveBufferSize;
+    private final int sendBufferSize;
+    private final int writeBufferLowWaterMark;
+    private final int writeBufferHighWaterMark;
+    private final boolean tcpNoDelay;
+    private final boolean keepAlive;
+    private final int trafficClass;
+    private final int tcpFastOpen;
+    private final Duration tcpDeferAccept;
+    private final int busyPoll;
+
+    private SocketOptions(Builder builder) {
+        this.backlog = builder.backlog;
+        this.receiveBufferSize = builder.receiveBufferSize;
+        this.sendBufferSize = builder.sendBufferSize;
+        this.writeBufferLowWaterMark = builder.writeBufferLowWaterMark;
+        this.writeBufferHighWaterMark = builder.writeBufferHighWaterMark;
+        this.tcpNoDelay = builder.tcpNoDelay;
+        this.keepAlive = builder.keepAlive;
+        this.trafficClass = builder.trafficClass;
+        this.tcpFastOpen = builder.tcpFastOpen;
+        this.tcpDeferAccept = builder.tcpDeferAccept;
+        this.busyPoll = builder.busyPoll;
+    }
+
+    /**
+     * Returns the default socket options
+     *
+     * @return The default {@link SocketOptions}
+     */
+    public static @NotNull SocketOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a new builder of socket options
+     *
+     * @return A {@link Builder}
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the maximum number of connections waiting to be accepted (SO_BACKLOG)
+     *
+     * @return A number of connections; 0 for the default of the system
+     */
+    public int backlog() {
+        return this.backlog;
+    }
+
+    /**
+     * Returns the size of the receive buffer of the connections (SO_RCVBUF)
+     *
+     * @return A size in bytes; 0 for the default of the system
+     */
+    public int receiveBufferSize() {
+        return this.receiveBufferSize;
+    }
+
+    /**
+     * Returns the size of the send buffer of the connections (SO_SNDBUF)
+     *
+     * @return A size in bytes; 0 for the default of the system
+     */
+    public int sendBufferSize() {
+        return this.sendBufferSize;
+    }
+
+    /**
+     * Returns the number of pending outbound bytes under which a connection becomes writable again
+     *
+     * @return A number of bytes
+     */
+    public int writeBufferLowWaterMark() {
+        return this.writeBufferLowWaterMark;
+    }
+
+    /**
+     * Returns the number of pending outbound bytes above which a connection stops being writable.<br>
+     * Streamed responses wait for the connection to be writable again, so it bounds the memory held by a slow client.
+     *
+     * @return A number of bytes
+     */
+    public int writeBufferHighWaterMark() {
+        return this.writeBufferHighWaterMark;
+    }
+
+    /**
+     * Checks whether Nagle's algorithm is disabled (TCP_NODELAY)
+     *
+     * @return <code>true</code> if small packets are sent right away
+     */
+    public boolean tcpNoDelay() {
+        return this.tcpNoDelay;
+    }
+
+    /**
+     * Checks whether TCP keep-alive probes are sent on idle connections (SO_KEEPALIVE)
+     *
+     * @return <code>true</code> if they are sent
+     */
+    public boolean keepAlive() {
+        return this.keepAlive;
+    }
+
+    /**
+     * Returns the type of service of the connections' packets (IP_TOS)
+     *
+     * @return A value between 0 and 255
+     */
+    public int trafficClass() {
+        return this.trafficClass;
+    }
+
+    /**
+     * Returns the length of the queue of TCP Fast Open connections (TCP_FASTOPEN), whose first request is sent with the handshake.<br>
+     * Supported by {@link Transport#EPOLL} and {@link Transport#IO_URING}.
+     *
+     * @return A number of connections; 0 if disabled
+     */
+    public int tcpFastOpen() {
+        return this.tcpFastOpen;
+    }
+
+    /**
+     * Returns how long a connection can wait for its first bytes before being accepted (TCP_DEFER_ACCEPT), so the server isn't woken up by connections which are not sending anything yet.<br>
+     * Supported by {@link Transport#EPOLL} and {@link Transport#IO_URING}.
+     *
+     * @return A {@link Duration}; zero if disabled
+     */
+    public @NotNull Duration tcpDeferAccept() {
+        return this.tcpDeferAccept;
+    }
+
+    /**
+     * Returns how long a read busy-polls the network device before sleeping (SO_BUSY_POLL), trading CPU time for latency.<br>
+     * Supported by {@link Transport#EPOLL}.
+     *
+     * @return A number of microseconds; 0 if disabled
+     */
+    public int busyPoll() {
+        return this.busyPoll;
+    }
+
+    /**
+     * The builder of {@linkplain SocketOptions socket options}.<br>
+     * By default, Nagle's algorithm is disabled, TCP keep-alive is enabled, packets ask for low delay and high throughput (IP_TOS 0x18), and connections stop being writable above 64 KiB of pending bytes (until they go under 32 KiB).
+     */
+    public static final class Builder implements IBuilder<SocketOptions> {
+
+        private int backlog;
+        private int receiveBufferSize;
+        private int sendBufferSize;
+        private int writeBufferLowWaterMark = 32 * 1024;
+        private int writeBufferHighWaterMark = 64 * 1024;
+        private boolean tcpNoDelay = true;
+        private boolean keepAlive = true;
+        private int trafficClass = 0x18;
+        private int tcpFastOpen;
+        private Duration tcpDeferAccept = Duration.ZERO;
+        private int busyPoll;
+
+        private Builder() {}
+
+        /**
+         * Sets the maximum number of connections waiting to be accepted
+         *
+         * @param backlog A number of connections; 0 for the default of the system
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Sets the size of the receive buffer of the connections
+         *
+         * @param size A size in bytes; 0 for the default of the system
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder receiveBufferSize(int size) {
+            this.receiveBufferSize = size;
+            return this;
+        }
+
+        /**
+         * Sets the size of the send buffer of the connections
+         *
+         * @param size A size in bytes; 0 for the default of the system
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder sendBufferSize(int size) {
+            this.sendBufferSize = size;
+            return this;
+        }
+
+        /**
+         * Sets the numbers of pending outbound bytes between which a connection stops and starts being writable again
+         *
+         * @param low The number of bytes under which a connection becomes writable again
+         * @param high The number of bytes above which a connection stops being writable
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder writeBufferWaterMark(int low, int high) {
+            this.writeBufferLowWaterMark = low;
+            this.writeBufferHighWaterMark = high;
+            return this;
+        }
+
+        /**
+         * Sets whether Nagle's algorithm is disabled
+         *
+         * @param noDelay <code>true</code> to send small packets right away
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder tcpNoDelay(boolean noDelay) {
+            this.tcpNoDelay = noDelay;
+            return this;
+        }
+
+        /**
+         * Sets whether TCP keep-alive probes are sent on idle connections
+         *
+         * @param keepAlive <code>true</code> to send them
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder keepAlive(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Sets the type of service of the connections' packets
+         *
+         * @param trafficClass A value between 0 and 255
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder trafficClass(int trafficClass) {
+            this.trafficClass = trafficClass;
+            return this;
+        }
+
+        /**
+         * Sets the length of the queue of TCP Fast Open connections
+         *
+         * @param queueLength A number of connections; 0 to disable it
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder tcpFastOpen(int queueLength) {
+            this.tcpFastOpen = queueLength;
+            return this;
+        }
+
+        /**
+         * Sets how long a connection can wait for its first bytes before being accepted
+         *
+         * @param timeout A {@link Duration} (in seconds); zero to disable it
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder tcpDeferAccept(@NotNull Duration timeout) {
+            this.tcpDeferAccept = timeout;
+            return this;
+        }
+
+        /**
+         * Sets how long a read busy-polls the network device before sleeping
+         *
+         * @param micros A number of microseconds; 0 to disable it
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder busyPoll(int micros) {
+            this.busyPoll = micros;
+            return this;
+        }
+
+        @Override
+        public SocketOptions build() {
+            if (this.backlog < 0) {
+                throw new BuilderException(this.getClass(), "backlog");
+            }
+
+            if (this.receiveBufferSize < 0) {
+                throw new BuilderException(this.getClass(), "receiveBufferSize");
+            }
+
+            if (this.sendBufferSize < 0) {
+                throw new BuilderException(this.getClass(), "sendBufferSize");
+            }
+
+            if (this.writeBufferLowWaterMark < 0 || this.writeBufferHighWaterMark <= 0 || this.writeBufferLowWaterMark > this.writeBufferHighWaterMark) {
+                throw new BuilderException(this.getClass(), "writeBufferWaterMark");
+            }
+
+            if (this.trafficClass < 0 || this.trafficClass > 255) {
+                throw new BuilderException(this.getClass(), "trafficClass");
+            }
+
+            if (this.tcpFastOpen < 0) {
+                throw new BuilderException(this.getClass(), "tcpFastOpen");
+            }
+
+            if (this.tcpDeferAccept.isNegative() || this.tcpDeferAccept.getSeconds() > Integer.MAX_VALUE) {
+                throw new BuilderException(this.getClass(), "tcpDeferAccept");
+            }
+
+            if (this.busyPoll < 0) {
+                throw new BuilderException(this.getClass(), "busyPoll");
+            }
+
+            return new SocketOptions(this);
+        }
+
+    }
+
+}
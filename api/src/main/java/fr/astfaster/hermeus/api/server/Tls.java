@@ -0,0 +1,204 @@
+package fr.astfaster.hermeus.api.server;
+
+import fr.astfaster.hermeus.api.util.builder.BuilderException;
+import fr.astfaster.hermeus.api.util.builder.IBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Represents the TLS settings of a {@linkplain HermeusServer server}.<br>
+ * The certificate chain and the private key are read from PEM files (the key in PKCS#8 format), and can be {@linkplain HermeusServer#reloadTls() reloaded} without restarting the server.<br><br>
+ *
+ * OpenSSL (e.g. with <code>netty-tcnative-boringssl-static</code> on the classpath) is used when it is available, as it is much faster than the JDK implementation; otherwise, the JDK implementation is used.
+ */
+public final class Tls {
+
+    private final Path certificateChain;
+    private final Path privateKey;
+    private final String keyPassword;
+    private final boolean openSsl;
+    private final long sessionCacheSize;
+    private final Duration sessionTimeout;
+    private final Duration reloadInterval;
+
+    private Tls(Builder builder) {
+        this.certificateChain = builder.certificateChain;
+        this.privateKey = builder.privateKey;
+        this.keyPassword = builder.keyPassword;
+        this.openSsl = builder.openSsl;
+        this.sessionCacheSize = builder.sessionCacheSize;
+        this.sessionTimeout = builder.sessionTimeout;
+        this.reloadInterval = builder.reloadInterval;
+    }
+
+    /**
+     * Returns a new builder of TLS settings
+     *
+     * @param certificateChain The PEM file of the certificate chain
+     * @param privateKey The PEM file of the private key (PKCS#8)
+     * @return A {@link Builder}
+     */
+    public static @NotNull Builder builder(@NotNull Path certificateChain, @NotNull Path privateKey) {
+        return new Builder(certificateChain, privateKey);
+    }
+
+    /**
+     * Returns the PEM file of the certificate chain
+     *
+     * @return A {@link Path}
+     */
+    public @NotNull Path certificateChain() {
+        return this.certificateChain;
+    }
+
+    /**
+     * Returns the PEM file of the private key
+     *
+     * @return A {@link Path}
+     */
+    public @NotNull Path privateKey() {
+        return this.privateKey;
+    }
+
+    /**
+     * Returns the password of the private key
+     *
+     * @return A password; or <code>null</code> if the key is not encrypted
+     */
+    public @Nullable String keyPassword() {
+        return this.keyPassword;
+    }
+
+    /**
+     * Checks whether OpenSSL is used when it is available
+     *
+     * @return <code>true</code> if OpenSSL is preferred to the JDK implementation
+     */
+    public boolean openSsl() {
+        return this.openSsl;
+    }
+
+    /**
+     * Returns the maximum number of sessions kept for resumption
+     *
+     * @return A number of sessions
+     */
+    public long sessionCacheSize() {
+        return this.sessionCacheSize;
+    }
+
+    /**
+     * Returns how long a session can be resumed
+     *
+     * @return A {@link Duration}
+     */
+    public @NotNull Duration sessionTimeout() {
+        return this.sessionTimeout;
+    }
+
+    /**
+     * Returns the interval at which the files are checked, to reload them when they change
+     *
+     * @return A {@link Duration}; zero if they are only reloaded by {@link HermeusServer#reloadTls()}
+     */
+    public @NotNull Duration reloadInterval() {
+        return this.reloadInterval;
+    }
+
+    /**
+     * The builder of {@linkplain Tls TLS settings}.<br>
+     * By default, OpenSSL is preferred, 20000 sessions are kept for 10 minutes, and the files are not watched.
+     */
+    public static final class Builder implements IBuilder<Tls> {
+
+        private final Path certificateChain;
+        private final Path privateKey;
+        private String keyPassword;
+        private boolean openSsl = true;
+        private long sessionCacheSize = 20000;
+        private Duration sessionTimeout = Duration.ofMinutes(10);
+        private Duration reloadInterval = Duration.ZERO;
+
+        private Builder(Path certificateChain, Path privateKey) {
+            this.certificateChain = certificateChain;
+            this.privateKey = privateKey;
+        }
+
+        /**
+         * Sets the password of the private key
+         *
+         * @param password The password; or <code>null</code> if the key is not encrypted
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder keyPassword(@Nullable String password) {
+            this.keyPassword = password;
+            return this;
+        }
+
+        /**
+         * Sets whether OpenSSL is used when it is available
+         *
+         * @param openSsl <code>true</code> to prefer OpenSSL to the JDK implementation
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder openSsl(boolean openSsl) {
+            this.openSsl = openSsl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of sessions kept for resumption
+         *
+         * @param size A number of sessions
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder sessionCacheSize(long size) {
+            this.sessionCacheSize = size;
+            return this;
+        }
+
+        /**
+         * Sets how long a session can be resumed
+         *
+         * @param timeout A {@link Duration}
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder sessionTimeout(@NotNull Duration timeout) {
+            this.sessionTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the interval at which the files are checked, to reload them when they change
+         *
+         * @param interval A {@link Duration}; zero to only reload them with {@link HermeusServer#reloadTls()}
+         * @return This {@link Builder} instance
+         */
+        public @NotNull Builder reloadInterval(@NotNull Duration interval) {
+            this.reloadInterval = interval;
+            return this;
+        }
+
+        @Override
+        public Tls build() {
+            if (this.sessionCacheSize < 0) {
+                throw new BuilderException(this.getClass(), "sessionCacheSize");
+            }
+
+            if (this.sessionTimeout.isNegative() || this.sessionTimeout.getSeconds() > Integer.MAX_VALUE) {
+                throw new BuilderException(this.getClass(), "sessionTimeout");
+            }
+
+            if (this.reloadInterval.isNegative()) {
+                throw new BuilderException(this.getClass(), "reloadInterval");
+            }
+
+            return new Tls(this);
+        }
+
+    }
+
+}
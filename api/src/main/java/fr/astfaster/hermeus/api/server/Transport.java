@@ -0,0 +1,18 @@
+package fr.astfaster.hermeus.api.server;
+
+/**
+ * Represents the I/O transports a {@linkplain HermeusServer server} can run on.<br>
+ * Native transports make fewer system calls than {@link #NIO}, but are only available on some systems.
+ */
+public enum Transport {
+
+    /** The transport of the JDK, available everywhere */
+    NIO,
+    /** The native transport of Linux */
+    EPOLL,
+    /** The native transport of macOS and BSD */
+    KQUEUE,
+    /** The native io_uring transport of Linux (5.9 and newer kernels); submits and completes I/O in batches through rings shared with the kernel */
+    IO_URING
+
+}
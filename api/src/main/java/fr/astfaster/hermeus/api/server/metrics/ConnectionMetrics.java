@@ -0,0 +1,17 @@
+package fr.astfaster.hermeus.api.server.metrics;
+
+/**
+ * Represents a snapshot of the metrics of a server's connections.<br>
+ * Bytes are counted as they are received from and given to the socket, so they include the overhead of TLS and HTTP/2 framing.
+ *
+ * @param open The number of open connections
+ * @param accepted The number of connections accepted since the server was enabled
+ * @param bytesReceived The number of bytes received
+ * @param bytesSent The number of bytes written to the sockets
+ * @param pendingOutboundBytes The number of bytes waiting to be written to the sockets
+ * @param unwritable The number of connections which are currently not writable (too many pending bytes)
+ * @param writabilityLost The number of times a connection stopped being writable
+ */
+public record ConnectionMetrics(long open, long accepted, long bytesReceived, long bytesSent, long pendingOutboundBytes, long unwritable, long writabilityLost) {
+
+}
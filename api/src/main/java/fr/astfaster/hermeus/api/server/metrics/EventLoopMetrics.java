@@ -0,0 +1,16 @@
+package fr.astfaster.hermeus.api.server.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a snapshot of the metrics of an event loop (a thread of a server).<br>
+ * A saturated loop has a growing lag and queue: requests then wait before being read, before it shows in their latencies.
+ *
+ * @param group The group of the loop: "boss" (accepting connections) or "worker" (handling them)
+ * @param index The index of the loop in its group
+ * @param pendingTasks The number of tasks waiting to be run by the loop; -1 if the loop doesn't tell it
+ * @param lag The delay of the last probe task run by the loop (scheduled every second), in nanoseconds
+ */
+public record EventLoopMetrics(@NotNull String group, int index, int pendingTasks, long lag) {
+
+}
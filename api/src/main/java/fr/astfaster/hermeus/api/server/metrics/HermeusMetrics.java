@@ -0,0 +1,49 @@
+package fr.astfaster.hermeus.api.server.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents the metrics recorded by a {@linkplain fr.astfaster.hermeus.api.server.HermeusServer server} since it was enabled.<br>
+ * A request is recorded once its response starts being sent: its latency is the time between the routing of the request and the sending of the response status.<br>
+ * Besides routes, the connections and the event loops of the server are monitored.
+ */
+public interface HermeusMetrics {
+
+    /**
+     * Returns a snapshot of the metrics of the routes which received requests
+     *
+     * @return A list of {@link RouteMetrics}
+     */
+    @NotNull List<RouteMetrics> routes();
+
+    /**
+     * Returns the number of requests which didn't match any route
+     *
+     * @return A number of requests
+     */
+    long unmatchedRequests();
+
+    /**
+     * Returns a snapshot of the metrics of the server's connections
+     *
+     * @return A {@link ConnectionMetrics}
+     */
+    @NotNull ConnectionMetrics connections();
+
+    /**
+     * Returns a snapshot of the metrics of the server's event loops
+     *
+     * @return A list of {@link EventLoopMetrics}; empty if the server is not enabled
+     */
+    @NotNull List<EventLoopMetrics> eventLoops();
+
+    /**
+     * Formats the metrics in the text format of Prometheus.
+     *
+     * @return The exposition text
+     */
+    @NotNull String prometheus();
+
+}
@@ -0,0 +1,18 @@
+package fr.astfaster.hermeus.api.server.metrics;
+
+/**
+ * Represents the distribution of latencies, in nanoseconds.<br>
+ * Percentiles are computed from buckets with a relative precision of about 3% (and are never greater than the maximum).
+ *
+ * @param count The number of recorded latencies
+ * @param min The lowest latency; 0 if none was recorded
+ * @param max The highest latency
+ * @param mean The average latency
+ * @param p50 The median latency
+ * @param p90 The 90th percentile
+ * @param p99 The 99th percentile
+ * @param p999 The 99.9th percentile
+ */
+public record LatencySnapshot(long count, long min, long max, double mean, long p50, long p90, long p99, long p999) {
+
+}
@@ -0,0 +1,21 @@
+package fr.astfaster.hermeus.api.server.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a snapshot of the metrics of a route.
+ *
+ * @param method The HTTP method of the route (e.g. "GET")
+ * @param route The path of the route, with its parameters (e.g. "/v1/users/:id")
+ * @param requests The number of answered requests
+ * @param informational The number of 1xx responses
+ * @param successful The number of 2xx responses
+ * @param redirection The number of 3xx responses
+ * @param clientErrors The number of 4xx responses
+ * @param serverErrors The number of 5xx responses
+ * @param inFlight The number of requests waiting for their response
+ * @param latency The latencies of the answered requests
+ */
+public record RouteMetrics(@NotNull String method, @NotNull String route, long requests, long informational, long successful, long redirection, long clientErrors, long serverErrors, long inFlight, @NotNull LatencySnapshot latency) {
+
+}
@@ -1,14 +1,13 @@
 package fr.astfaster.hermeus.api.util.builder;
 
 import fr.astfaster.hermeus.api.HermeusException;
-import fr.astfaster.hermeus.api.server.HermeusServer;
 
 /**
  * An exception thrown by {@linkplain IBuilder builders} if there are invalid fields which stop object building.
  */
 public class BuilderException extends HermeusException {
 
-    public BuilderException(Class<? extends HermeusServer.Builder> builderClass, String... invalidFields) {
+    public BuilderException(Class<? extends IBuilder<?>> builderClass, String... invalidFields) {
         super("Couldn't build " + builderClass.getName() + "! Invalid fields: " + formatFields(invalidFields) + ".");
     }
 
@@ -0,0 +1,120 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.HermeusRouter;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole request on a keep-alive HTTP/1 connection: from the request bytes to the response bytes, through the pipeline of the server.<br>
+ * The connection is an {@link EmbeddedChannel}, so no time is spent in the network or in the event loops.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PipelineBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private HermeusImpl hermeus;
+    private EmbeddedChannel channel;
+
+    private ByteBuf staticRequest;
+    private ByteBuf parameterisedRequest;
+    private ByteBuf jsonRequest;
+
+    @Setup
+    public void setup() {
+        this.hermeus = HermeusImpl.create();
+
+        // Enabled on an ephemeral port to create its router; the benchmarked connection doesn't go through it
+        final HermeusServerImpl server = (HermeusServerImpl) this.hermeus.serverBuilder()
+                .address(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .idleTimeout(Duration.ZERO)
+                .metrics(this.metrics)
+                .build();
+
+        server.enable();
+
+        final HermeusRouter router = server.router();
+
+        router.get("/hello", (request, response) -> response.text("Hello world!"));
+        router.get("/users/:id", (request, response) -> response.json(Map.of("id", request.parameter("id").value(), "page", request.parameter("page").value())));
+        router.post("/echo", (request, response) -> response.json(request.jsonBody()));
+
+        this.channel = new EmbeddedChannel();
+
+        server.initConnection(this.channel);
+
+        final String body = "{\"name\":\"Hermeus\",\"tags\":[\"http\",\"netty\"],\"stars\":42}";
+
+        this.staticRequest = request("GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        this.parameterisedRequest = request("GET /users/42?page=3 HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\n\r\n");
+        this.jsonRequest = request("POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\nContent-Length: " + body.length() + "\r\n\r\n" + body);
+    }
+
+    private static ByteBuf request(String request) {
+        return Unpooled.directBuffer().writeBytes(request.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.channel.finishAndReleaseAll();
+        this.hermeus.stop();
+
+        this.staticRequest.release();
+        this.parameterisedRequest.release();
+        this.jsonRequest.release();
+    }
+
+    private int exchange(ByteBuf request) {
+        this.channel.writeInbound(request.retainedDuplicate());
+
+        int written = 0;
+        Object message;
+
+        while ((message = this.channel.readOutbound()) != null) {
+            if (message instanceof ByteBuf buffer) {
+                written += buffer.readableBytes();
+            }
+
+            ReferenceCountUtil.release(message);
+        }
+        return written;
+    }
+
+    @Benchmark
+    public int staticRoute() {
+        return this.exchange(this.staticRequest);
+    }
+
+    @Benchmark
+    public int parameterisedRoute() {
+        return this.exchange(this.parameterisedRequest);
+    }
+
+    @Benchmark
+    public int jsonBody() {
+        return this.exchange(this.jsonRequest);
+    }
+
+}
@@ -0,0 +1,56 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.http.HttpParameter;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of the query parameters of a request, done on the first access to its parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryBenchmark {
+
+    @Param({
+            "/search?q=hermeus",
+            "/search?q=hermeus&page=2&size=50&sort=name&order=asc&filter=active&lang=fr&debug=false",
+            "/search?q=caf%C3%A9+cr%C3%A8me&tag=a&tag=b&tag=c&redirect=https%3A%2F%2Fexample.com%2Fa%3Fb%3Dc"
+    })
+    public String uri;
+
+    private HermeusImpl hermeus;
+    private HttpRequest request;
+
+    @Setup
+    public void setup() {
+        this.hermeus = HermeusImpl.create();
+        this.request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, this.uri);
+    }
+
+    @Benchmark
+    public Collection<HttpParameter> parameters() {
+        return new HermeusRequestImpl(this.hermeus, this.request, Unpooled.EMPTY_BUFFER, null).parameters();
+    }
+
+    @Benchmark
+    public HttpParameter parameter() {
+        return new HermeusRequestImpl(this.hermeus, this.request, Unpooled.EMPTY_BUFFER, null).parameter("q");
+    }
+
+}
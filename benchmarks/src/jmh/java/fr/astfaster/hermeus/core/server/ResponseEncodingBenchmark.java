@@ -0,0 +1,138 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding of response bodies and headers, from a handler's call to the message written to the channel (before the HTTP encoder).<br>
+ * Covers the content type resolution (cached with its charset) and the UTF-8 encoding straight into pooled buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseEncodingBenchmark {
+
+    // Roughly the size of the body, in characters
+    @Param({"32", "4096"})
+    public int size;
+
+    private HermeusImpl hermeus;
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+    private HttpRequest request;
+
+    private String text;
+    private byte[] bytes;
+    private List<Map<String, Object>> object;
+
+    @Setup
+    public void setup() {
+        this.hermeus = HermeusImpl.create();
+        this.channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        this.ctx = this.channel.pipeline().firstContext();
+        this.request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+
+        // Mostly ASCII, with a few characters encoded on several bytes
+        final StringBuilder text = new StringBuilder();
+
+        while (text.length() < this.size) {
+            text.append("Hermeus répond ");
+        }
+
+        this.text = text.substring(0, this.size);
+        this.bytes = this.text.getBytes(StandardCharsets.UTF_8);
+        this.object = new ArrayList<>();
+
+        // About 64 characters per element
+        for (int i = 0; i < Math.max(1, this.size / 64); i++) {
+            final Map<String, Object> element = new LinkedHashMap<>();
+
+            element.put("id", i);
+            element.put("name", "élément " + i);
+            element.put("active", i % 2 == 0);
+            element.put("score", i * 1.5);
+
+            this.object.add(element);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.channel.finishAndReleaseAll();
+    }
+
+    private HermeusResponseImpl response() {
+        return new HermeusResponseImpl(this.hermeus, this.ctx, this.request, true);
+    }
+
+    private void drain(Blackhole blackhole) {
+        Object message;
+
+        while ((message = this.channel.readOutbound()) != null) {
+            blackhole.consume(message);
+            ReferenceCountUtil.release(message);
+        }
+    }
+
+    @Benchmark
+    public void text(Blackhole blackhole) {
+        this.response().text(this.text);
+        this.drain(blackhole);
+    }
+
+    @Benchmark
+    public void html(Blackhole blackhole) {
+        this.response().html(this.text);
+        this.drain(blackhole);
+    }
+
+    @Benchmark
+    public void customContentType(Blackhole blackhole) {
+        this.response().text(this.text, "text/csv", HttpResponseStatus.OK);
+        this.drain(blackhole);
+    }
+
+    @Benchmark
+    public void classic(Blackhole blackhole) {
+        this.response().classic(this.bytes, "application/octet-stream", HttpResponseStatus.OK);
+        this.drain(blackhole);
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) {
+        this.response().json(this.object);
+        this.drain(blackhole);
+    }
+
+    @Benchmark
+    public void entity(Blackhole blackhole) {
+        this.response().entity(this.object);
+        this.drain(blackhole);
+    }
+
+}
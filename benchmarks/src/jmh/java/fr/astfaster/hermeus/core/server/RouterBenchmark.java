@@ -0,0 +1,125 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.HermeusHandler;
+import fr.astfaster.hermeus.api.server.HermeusRouter;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.server.routing.PathCursor;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the routing of a request to its handler, with more or less routes registered besides the matched one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouterBenchmark {
+
+    private static final int NESTING = 8;
+
+    @Param({"10", "1000", "5000"})
+    public int routes;
+
+    private HermeusImpl hermeus;
+    private HermeusRouterImpl router;
+    // Reused like the cursor of an event loop
+    private final PathCursor cursor = PathCursor.of("/");
+
+    private HttpRequest staticRequest;
+    private HttpRequest parameterisedRequest;
+    private HttpRequest wildcardRequest;
+    private HttpRequest nestedRequest;
+    private HttpRequest unknownRequest;
+
+    @Setup
+    public void setup() {
+        this.hermeus = HermeusImpl.create();
+        this.router = new HermeusRouterImpl("/", null);
+
+        final HermeusHandler handler = (request, response) -> {};
+
+        for (int i = 0; i < this.routes; i++) {
+            this.router.get("/static/route" + i, handler);
+            this.router.get("/users" + i + "/:id/posts/:post", handler);
+        }
+
+        this.router.get("/files/*path", handler);
+
+        HermeusRouter nested = this.router;
+
+        for (int depth = 0; depth < NESTING; depth++) {
+            nested = nested.subRouter("/level" + depth);
+        }
+
+        nested.get("/items/:id", handler);
+
+        final StringBuilder nestedUri = new StringBuilder();
+
+        for (int depth = 0; depth < NESTING; depth++) {
+            nestedUri.append("/level").append(depth);
+        }
+
+        // The last registered routes, so that they are not found first
+        this.staticRequest = request("/static/route" + (this.routes - 1));
+        this.parameterisedRequest = request("/users" + (this.routes - 1) + "/42/posts/7");
+        this.wildcardRequest = request("/files/css/app/main.css");
+        this.nestedRequest = request(nestedUri + "/items/42");
+        this.unknownRequest = request("/static/unknown");
+    }
+
+    private static HttpRequest request(String uri) {
+        return new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+    }
+
+    private HermeusRouterImpl.RegisteredHandler route(HttpRequest request) {
+        return this.router.route(this.cursor.reset(request.uri()), new HermeusRequestImpl(this.hermeus, request, Unpooled.EMPTY_BUFFER, null));
+    }
+
+    @Benchmark
+    public HermeusRouterImpl.RegisteredHandler staticRoute() {
+        return this.route(this.staticRequest);
+    }
+
+    @Benchmark
+    public HermeusRouterImpl.RegisteredHandler parameterisedRoute() {
+        return this.route(this.parameterisedRequest);
+    }
+
+    @Benchmark
+    public Object parameterisedRouteWithParameters() {
+        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, this.parameterisedRequest, Unpooled.EMPTY_BUFFER, null);
+
+        this.router.route(this.cursor.reset(this.parameterisedRequest.uri()), request);
+
+        return request.parameter("post");
+    }
+
+    @Benchmark
+    public HermeusRouterImpl.RegisteredHandler wildcardRoute() {
+        return this.route(this.wildcardRequest);
+    }
+
+    @Benchmark
+    public HermeusRouterImpl.RegisteredHandler nestedRoute() {
+        return this.route(this.nestedRequest);
+    }
+
+    @Benchmark
+    public HermeusRouterImpl.RegisteredHandler unknownRoute() {
+        return this.route(this.unknownRequest);
+    }
+
+}
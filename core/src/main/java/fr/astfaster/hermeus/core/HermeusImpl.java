@@ -3,7 +3,16 @@ package fr.astfaster.hermeus.core;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import fr.astfaster.hermeus.api.memory.AllocatorMetrics;
+import fr.astfaster.hermeus.api.memory.LeakDetection;
 import fr.astfaster.hermeus.api.server.HermeusServer;
+import fr.astfaster.hermeus.core.codec.CborCodec;
+import fr.astfaster.hermeus.core.codec.CodecRegistry;
+import fr.astfaster.hermeus.core.codec.JsonCodec;
+import fr.astfaster.hermeus.core.codec.TextCodec;
+import fr.astfaster.hermeus.core.netty.NettyAllocator;
+import fr.astfaster.hermeus.core.netty.NettyEventLoops;
 import fr.astfaster.hermeus.core.server.HermeusServerImpl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,9 +27,17 @@ public class HermeusImpl implements Hermeus {
 
     private Gson defaultSerializer = new GsonBuilder().create();
 
+    private final CodecRegistry codecs = new CodecRegistry();
+
+    private final NettyEventLoops eventLoops = new NettyEventLoops();
+
     private final List<HermeusServer> servers = new ArrayList<>();
 
-    private HermeusImpl() {}
+    private HermeusImpl() {
+        this.codecs.register(new JsonCodec(this));
+        this.codecs.register(new CborCodec(this));
+        this.codecs.register(new TextCodec());
+    }
 
     public static HermeusImpl create() {
         return new HermeusImpl();
@@ -29,7 +46,10 @@ public class HermeusImpl implements Hermeus {
     @Override
     public void stop() {
         for (HermeusServer server : servers) {
-            server.disable();
+            // Servers which failed to bind were never enabled
+            if (server.enabled()) {
+                server.disable();
+            }
         }
 
         this.servers.clear();
@@ -59,4 +79,37 @@ public class HermeusImpl implements Hermeus {
         this.defaultSerializer = serializer;
     }
 
+    @Override
+    public void codec(@NotNull HermeusCodec codec) {
+        this.codecs.register(codec);
+    }
+
+    @Override
+    public @NotNull List<HermeusCodec> codecs() {
+        return this.codecs.codecs();
+    }
+
+    @Override
+    public @NotNull AllocatorMetrics allocatorMetrics() {
+        return NettyAllocator.snapshot();
+    }
+
+    @Override
+    public void leakDetection(@NotNull LeakDetection detection) {
+        NettyAllocator.leakDetection(detection);
+    }
+
+    @Override
+    public @NotNull LeakDetection leakDetection() {
+        return NettyAllocator.leakDetection();
+    }
+
+    public @NotNull CodecRegistry codecRegistry() {
+        return this.codecs;
+    }
+
+    public @NotNull NettyEventLoops eventLoops() {
+        return this.eventLoops;
+    }
+
 }
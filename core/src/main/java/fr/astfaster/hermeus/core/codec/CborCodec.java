@@ -0,0 +1,43 @@
+package fr.astfaster.hermeus.core.codec;
+
+import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The CBOR (RFC 8949) codec: a compact binary equivalent of JSON, cheaper to encode, decode and transmit.<br>
+ * Objects are mapped with the {@linkplain Hermeus#defaultSerializer() default serializer}, so they get the same structure in CBOR as in JSON.
+ * They are streamed from and to the buffers, without building JSON trees; byte strings are decoded as Base64 strings, and tags are ignored.
+ */
+@ApiStatus.Internal
+public class CborCodec implements HermeusCodec {
+
+    private final Hermeus hermeus;
+
+    public CborCodec(Hermeus hermeus) {
+        this.hermeus = hermeus;
+    }
+
+    @Override
+    public @NotNull String contentType() {
+        return "application/cbor";
+    }
+
+    @Override
+    public void encode(@NotNull Object object, @NotNull ByteBuf out) {
+        this.hermeus.defaultSerializer().toJson(object, object.getClass(), new CborWriter(out));
+    }
+
+    @Override
+    public <T> T decode(@NotNull ByteBuf in, @NotNull Class<T> type) {
+        final T object = this.hermeus.defaultSerializer().fromJson(new CborReader(in), type);
+
+        if (in.isReadable()) {
+            throw new IllegalArgumentException("Unexpected data after the CBOR item");
+        }
+        return object;
+    }
+
+}
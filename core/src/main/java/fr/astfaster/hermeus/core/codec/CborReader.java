@@ -0,0 +1,388 @@
+package fr.astfaster.hermeus.core.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Reads a CBOR item from a buffer as JSON text, produced item by item while the serializer reads it: the CBOR is decoded without building a JSON tree.<br>
+ * The serializer's own JSON reader is used on top of it, as its map adapter relies on internals only available to the built-in readers.
+ * Byte strings are read as Base64 strings, map keys as strings, and tags are ignored.
+ */
+@ApiStatus.Internal
+class CborReader extends Reader {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xFF;
+
+    // Protects the readers from maliciously nested payloads
+    private static final int MAX_DEPTH = 512;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ByteBuf in;
+
+    // The JSON text of the last read token, not consumed yet
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingIndex;
+
+    // The arrays and maps being read, from the outermost
+    private Container[] containers = new Container[8];
+    private int depth;
+    private boolean ended;
+
+    CborReader(ByteBuf in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        int count = 0;
+
+        // Fills the buffer as much as possible: the JSON reader asks for more text on every refill
+        while (count < length) {
+            if (this.pendingIndex == this.pending.length()) {
+                if (this.ended) {
+                    break;
+                }
+
+                this.pending.setLength(0);
+                this.pendingIndex = 0;
+                this.readToken();
+                continue;
+            }
+
+            final int chunk = Math.min(length - count, this.pending.length() - this.pendingIndex);
+
+            this.pending.getChars(this.pendingIndex, this.pendingIndex + chunk, buffer, offset + count);
+            this.pendingIndex += chunk;
+            count += chunk;
+        }
+        return count == 0 && length > 0 ? -1 : count;
+    }
+
+    @Override
+    public void close() {}
+
+    /**
+     * Reads the next token of the item (a value, or the start or the end of an array or a map) into the pending text.
+     */
+    private void readToken() {
+        final Container container = this.depth > 0 ? this.containers[this.depth - 1] : null;
+
+        if (container == null) {
+            // The single item of the buffer
+            this.readValue(false);
+            return;
+        }
+
+        if (container.remaining == 0 || container.remaining < 0 && this.readBreak()) {
+            this.pending.append(container.map ? '}' : ']');
+            this.depth--;
+            this.valueRead();
+            return;
+        }
+
+        if (container.map) {
+            if (container.key) {
+                if (container.count > 0) {
+                    this.pending.append(',');
+                }
+
+                this.readValue(true);
+                this.pending.append(':');
+                container.key = false;
+                return;
+            }
+
+            container.key = true;
+        } else if (container.count > 0) {
+            this.pending.append(',');
+        }
+
+        this.readValue(false);
+    }
+
+    /**
+     * Called once a value is fully read, to count it in its container.
+     */
+    private void valueRead() {
+        if (this.depth == 0) {
+            this.ended = true;
+            return;
+        }
+
+        final Container container = this.containers[this.depth - 1];
+
+        // A map entry counts once, on its value
+        if (!container.map || container.key) {
+            container.count++;
+
+            if (container.remaining > 0) {
+                container.remaining--;
+            }
+        }
+    }
+
+    private void readValue(boolean key) {
+        int initial = this.in.readUnsignedByte();
+
+        // Tags are ignored
+        while (initial >>> 5 == MAJOR_TAG) {
+            this.readArgument(initial & 0x1F);
+
+            initial = this.in.readUnsignedByte();
+        }
+
+        final int major = initial >>> 5;
+        final int info = initial & 0x1F;
+
+        switch (major) {
+            case MAJOR_UNSIGNED -> {
+                final long value = this.readArgument(info);
+
+                this.openKey(key);
+
+                if (value >= 0) {
+                    this.pending.append(value);
+                } else {
+                    this.pending.append(Long.toUnsignedString(value));
+                }
+
+                this.closeKey(key);
+            }
+            case MAJOR_NEGATIVE -> {
+                final long value = this.readArgument(info);
+
+                this.openKey(key);
+
+                if (value >= 0) {
+                    this.pending.append(-1 - value);
+                } else {
+                    this.pending.append(new BigInteger(Long.toUnsignedString(value)).add(BigInteger.ONE).negate());
+                }
+
+                this.closeKey(key);
+            }
+            case MAJOR_BYTES -> {
+                final byte[] bytes = info == INDEFINITE ? this.readChunks(MAJOR_BYTES) : ByteBufUtil.getBytes(this.in.readSlice(this.readLength(info)));
+
+                this.appendString(Base64.getEncoder().encodeToString(bytes));
+            }
+            case MAJOR_TEXT -> {
+                if (info == INDEFINITE) {
+                    this.appendString(new String(this.readChunks(MAJOR_TEXT), StandardCharsets.UTF_8));
+                } else {
+                    this.appendText(this.readLength(info));
+                }
+            }
+            case MAJOR_ARRAY, MAJOR_MAP -> {
+                if (key) {
+                    throw new IllegalArgumentException("Unsupported CBOR map key: an array or a map");
+                }
+
+                if (this.depth == MAX_DEPTH) {
+                    throw new IllegalArgumentException("CBOR item nested too deeply");
+                }
+
+                if (this.depth == this.containers.length) {
+                    this.containers = Arrays.copyOf(this.containers, this.depth * 2);
+                }
+
+                final boolean map = major == MAJOR_MAP;
+                Container container = this.containers[this.depth];
+
+                if (container == null) {
+                    container = this.containers[this.depth] = new Container();
+                }
+
+                container.map = map;
+                container.key = true;
+                container.count = 0;
+                container.remaining = info == INDEFINITE ? -1 : this.readLength(info);
+
+                this.depth++;
+                this.pending.append(map ? '{' : '[');
+                return;
+            }
+            default -> this.readSimple(info, key);
+        }
+
+        if (!key) {
+            this.valueRead();
+        }
+    }
+
+    private void readSimple(int info, boolean key) {
+        final String value = switch (info) {
+            case 20 -> "false";
+            case 21 -> "true";
+            case 22, 23 -> "null";
+            // Half floats are exact as doubles, whereas their shortest float form (e.g. "6.1035156E-5") is not
+            case 25 -> Double.toString(halfToFloat(this.in.readUnsignedShort()));
+            case 26 -> Float.toString(this.in.readFloat());
+            case 27 -> Double.toString(this.in.readDouble());
+            default -> throw new IllegalArgumentException("Unsupported CBOR simple value: " + info);
+        };
+
+        if (key) {
+            this.appendString(value);
+        } else {
+            this.pending.append(value);
+        }
+    }
+
+    // Map keys are always strings in JSON
+    private void openKey(boolean key) {
+        if (key) {
+            this.pending.append('"');
+        }
+    }
+
+    private void closeKey(boolean key) {
+        if (key) {
+            this.pending.append('"');
+        }
+    }
+
+    /**
+     * Appends a UTF-8 text of the buffer as a JSON string; ASCII characters are copied without decoding the text to a {@link String} first.
+     */
+    private void appendText(int length) {
+        final ByteBuf in = this.in;
+        final int start = in.readerIndex();
+        final int end = start + length;
+
+        for (int i = start; i < end; i++) {
+            if (in.getByte(i) < 0) {
+                this.appendString(in.readCharSequence(length, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+
+        final StringBuilder pending = this.pending;
+
+        pending.append('"');
+
+        for (int i = start; i < end; i++) {
+            this.appendCharacter((char) in.getByte(i));
+        }
+
+        pending.append('"');
+        in.readerIndex(end);
+    }
+
+    private void appendString(CharSequence value) {
+        final StringBuilder pending = this.pending;
+
+        pending.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            this.appendCharacter(value.charAt(i));
+        }
+
+        pending.append('"');
+    }
+
+    private void appendCharacter(char c) {
+        if (c == '"' || c == '\\') {
+            this.pending.append('\\').append(c);
+        } else if (c < 0x20) {
+            this.pending.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+        } else {
+            this.pending.append(c);
+        }
+    }
+
+    private byte[] readChunks(int major) {
+        // Indefinite strings are made of definite chunks of the same major type
+        final ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+
+        while (!this.readBreak()) {
+            final int initial = this.in.readUnsignedByte();
+
+            if (initial >>> 5 != major || (initial & 0x1F) == INDEFINITE) {
+                throw new IllegalArgumentException("Invalid chunk in an indefinite CBOR string");
+            }
+
+            chunks.writeBytes(ByteBufUtil.getBytes(this.in.readSlice(this.readLength(initial & 0x1F))));
+        }
+        return chunks.toByteArray();
+    }
+
+    private boolean readBreak() {
+        if (this.in.getUnsignedByte(this.in.readerIndex()) == BREAK) {
+            this.in.skipBytes(1);
+            return true;
+        }
+        return false;
+    }
+
+    private int readLength(int info) {
+        final long length = this.readArgument(info);
+
+        // Every item takes at least one byte: a greater length can only come from a malformed payload
+        if (length < 0 || length > this.in.readableBytes()) {
+            throw new IllegalArgumentException("Invalid CBOR length: " + Long.toUnsignedString(length));
+        }
+        return (int) length;
+    }
+
+    private long readArgument(int info) {
+        return switch (info) {
+            case 24 -> this.in.readUnsignedByte();
+            case 25 -> this.in.readUnsignedShort();
+            case 26 -> this.in.readUnsignedInt();
+            case 27 -> this.in.readLong();
+            default -> {
+                if (info < 24) {
+                    yield info;
+                }
+                throw new IllegalArgumentException("Invalid CBOR argument: " + info);
+            }
+        };
+    }
+
+    private static float halfToFloat(int half) {
+        final int exponent = (half >>> 10) & 0x1F;
+        final int mantissa = half & 0x3FF;
+        final float value;
+
+        if (exponent == 0) {
+            value = mantissa * 0x1p-24f;
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (mantissa + 1024) * (float) Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private static final class Container {
+
+        private boolean map;
+        // Whether the next item of a map is a key
+        private boolean key;
+        // The number of values (or entries) read so far
+        private int count;
+        // The number of values (or entries) left; negative for an indefinite length
+        private long remaining;
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package fr.astfaster.hermeus.core.codec;
+
+import com.google.gson.stream.JsonWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * A {@link JsonWriter} writing CBOR straight into a buffer, so that the serializer streams an object to CBOR without building a JSON tree first.<br>
+ * Arrays and maps are written with an indefinite length, as their size is unknown when they begin.
+ */
+@ApiStatus.Internal
+class CborWriter extends JsonWriter {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+
+    private static final int INDEFINITE_ARRAY = 0x9F;
+    private static final int INDEFINITE_MAP = 0xBF;
+    private static final int FALSE = 0xF4;
+    private static final int TRUE = 0xF5;
+    private static final int NULL = 0xF6;
+    private static final int FLOAT32 = 0xFA;
+    private static final int FLOAT64 = 0xFB;
+    private static final int BREAK = 0xFF;
+
+    private final ByteBuf out;
+    // The name of the next value of a map; written with the value, as a null value may be skipped with its name
+    private String deferredName;
+
+    CborWriter(ByteBuf out) {
+        // Nothing is written as text
+        super(Writer.nullWriter());
+        this.out = out;
+    }
+
+    @Override
+    public JsonWriter beginArray() {
+        this.writeDeferredName();
+        this.out.writeByte(INDEFINITE_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() {
+        this.out.writeByte(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() {
+        this.writeDeferredName();
+        this.out.writeByte(INDEFINITE_MAP);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() {
+        this.out.writeByte(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) {
+        Objects.requireNonNull(name, "name == null");
+
+        if (this.deferredName != null) {
+            throw new IllegalStateException("Already wrote a name, expecting a value");
+        }
+
+        this.deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return this.nullValue();
+        }
+
+        this.writeDeferredName();
+        this.writeText(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) {
+        throw new UnsupportedOperationException("Raw JSON can't be written as CBOR");
+    }
+
+    @Override
+    public JsonWriter nullValue() {
+        if (this.deferredName != null) {
+            if (!this.getSerializeNulls()) {
+                // Skips the name along with the value
+                this.deferredName = null;
+                return this;
+            }
+
+            this.writeDeferredName();
+        }
+
+        this.out.writeByte(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) {
+        this.writeDeferredName();
+        this.out.writeByte(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) {
+        return value == null ? this.nullValue() : this.value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) {
+        this.writeDeferredName();
+        this.out.writeByte(FLOAT32);
+        this.out.writeFloat(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) {
+        this.writeDeferredName();
+        this.out.writeByte(FLOAT64);
+        this.out.writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) {
+        this.writeDeferredName();
+
+        if (value >= 0) {
+            this.writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            this.writeHeader(MAJOR_NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) {
+        if (value == null) {
+            return this.nullValue();
+        }
+
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return this.value(value.longValue());
+        }
+
+        if (value instanceof Double) {
+            return this.value(value.doubleValue());
+        }
+
+        if (value instanceof Float) {
+            return this.value(value.floatValue());
+        }
+
+        // Lazily parsed numbers, big numbers...
+        final BigDecimal decimal = new BigDecimal(value.toString());
+
+        try {
+            return this.value(decimal.longValueExact());
+        } catch (ArithmeticException e) {
+            return this.value(decimal.doubleValue());
+        }
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    private void writeDeferredName() {
+        if (this.deferredName != null) {
+            this.writeText(this.deferredName);
+            this.deferredName = null;
+        }
+    }
+
+    private void writeText(String text) {
+        final int length = ByteBufUtil.utf8Bytes(text);
+
+        this.writeHeader(MAJOR_TEXT, length);
+        ByteBufUtil.reserveAndWriteUtf8(this.out, text, length);
+    }
+
+    private void writeHeader(int major, long argument) {
+        final int type = major << 5;
+
+        if (argument < 24) {
+            this.out.writeByte(type | (int) argument);
+        } else if (argument <= 0xFF) {
+            this.out.writeByte(type | 24);
+            this.out.writeByte((int) argument);
+        } else if (argument <= 0xFFFF) {
+            this.out.writeByte(type | 25);
+            this.out.writeShort((int) argument);
+        } else if (argument <= 0xFFFFFFFFL) {
+            this.out.writeByte(type | 26);
+            this.out.writeInt((int) argument);
+        } else {
+            this.out.writeByte(type | 27);
+            this.out.writeLong(argument);
+        }
+    }
+
+}
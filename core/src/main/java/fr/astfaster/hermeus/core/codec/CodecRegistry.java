@@ -0,0 +1,237 @@
+package fr.astfaster.hermeus.core.codec;
+
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import io.netty.util.AsciiString;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Holds the registered {@linkplain HermeusCodec codecs} and picks the one to use for a message.<br>
+ * The registration order is the preference order of the server: it breaks the ties of the negotiation.
+ * A registry may extend a parent registry (e.g. the codecs of a server extend the ones of Hermeus): its own codecs come first, and replace the parent's codecs of the same media type.
+ */
+@ApiStatus.Internal
+public class CodecRegistry {
+
+    // Copied on write: registrations are rare, lookups happen on every request
+    private volatile Entry[] entries = new Entry[0];
+
+    private final CodecRegistry parent;
+    // The entries merged with the ones of the parent, recomputed when one of them changes
+    private volatile Merged merged;
+
+    public CodecRegistry() {
+        this(null);
+    }
+
+    public CodecRegistry(@Nullable CodecRegistry parent) {
+        this.parent = parent;
+    }
+
+    public synchronized void register(@NotNull HermeusCodec codec) {
+        final Entry entry = new Entry(codec);
+        final Entry[] entries = this.entries;
+
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].mediaType.equals(entry.mediaType)) {
+                final Entry[] copy = entries.clone();
+
+                copy[i] = entry;
+                this.entries = copy;
+                return;
+            }
+        }
+
+        final Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+
+        copy[entries.length] = entry;
+        this.entries = copy;
+    }
+
+    public @NotNull List<HermeusCodec> codecs() {
+        final List<HermeusCodec> codecs = new ArrayList<>();
+
+        for (Entry entry : this.entries()) {
+            codecs.add(entry.codec);
+        }
+        return codecs;
+    }
+
+    /**
+     * Returns the entries of the registry, followed by the entries of its parent which are not replaced.
+     */
+    private Entry[] entries() {
+        final Entry[] entries = this.entries;
+
+        if (this.parent == null) {
+            return entries;
+        }
+
+        final Entry[] parentEntries = this.parent.entries();
+        final Merged cached = this.merged;
+
+        if (cached != null && cached.entries == entries && cached.parentEntries == parentEntries) {
+            return cached.merged;
+        }
+
+        Entry[] merged = Arrays.copyOf(entries, entries.length + parentEntries.length);
+        int size = entries.length;
+
+        for (Entry parentEntry : parentEntries) {
+            if (!replaced(entries, parentEntry)) {
+                merged[size++] = parentEntry;
+            }
+        }
+
+        merged = Arrays.copyOf(merged, size);
+
+        this.merged = new Merged(entries, parentEntries, merged);
+
+        return merged;
+    }
+
+    private static boolean replaced(Entry[] entries, Entry parentEntry) {
+        for (Entry entry : entries) {
+            if (entry.mediaType.equals(parentEntry.mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the codec of a "Content-Type" header.
+     *
+     * @param contentType The header value (e.g. "application/json; charset=UTF-8")
+     * @param type The type of the object to decode
+     * @return The {@link Entry} of the codec; or <code>null</code> if no codec handles this content type
+     */
+    public @Nullable Entry forContentType(@Nullable String contentType, @NotNull Class<?> type) {
+        if (contentType == null) {
+            return null;
+        }
+
+        return this.forMediaType(mediaType(contentType), type);
+    }
+
+    private Entry forMediaType(String mediaType, Class<?> type) {
+        for (Entry entry : this.entries) {
+            if (entry.mediaType.equals(mediaType)) {
+                // A replaced codec of the parent is never used, even if this one doesn't support the type
+                return entry.codec.supports(type) ? entry : null;
+            }
+        }
+        return this.parent != null ? this.parent.forMediaType(mediaType, type) : null;
+    }
+
+    /**
+     * Negotiates the codec of a response from the "Accept" header of the request.<br>
+     * The media ranges of the header are weighted by their "q" parameter; the most specific range matching a codec gives its weight.
+     *
+     * @param accept The header value (e.g. "application/cbor, application/json;q=0.5"); <code>null</code> accepts everything
+     * @param type The type of the object to encode
+     * @return The {@link Entry} of the codec; or <code>null</code> if the client accepts none of the codecs
+     */
+    public @Nullable Entry negotiate(@Nullable String accept, @NotNull Class<?> type) {
+        final Entry[] entries = this.entries();
+
+        if (accept == null || accept.isBlank() || accept.equals("*/*")) {
+            for (Entry entry : entries) {
+                if (entry.codec.supports(type)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        final String[] ranges = accept.split(",");
+        Entry best = null;
+        float bestQuality = 0;
+
+        for (Entry entry : entries) {
+            if (!entry.codec.supports(type)) {
+                continue;
+            }
+
+            final float quality = quality(ranges, entry.mediaType);
+
+            if (quality > bestQuality) {
+                best = entry;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static float quality(String[] ranges, String mediaType) {
+        float quality = 0;
+        int specificity = -1;
+
+        for (String range : ranges) {
+            final int parameters = range.indexOf(';');
+            final String mediaRange = (parameters == -1 ? range : range.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+            final int rangeSpecificity;
+
+            if (mediaRange.equals(mediaType)) {
+                rangeSpecificity = 2;
+            } else if (mediaRange.endsWith("/*") && mediaType.startsWith(mediaRange.substring(0, mediaRange.length() - 1))) {
+                rangeSpecificity = 1;
+            } else if (mediaRange.equals("*/*")) {
+                rangeSpecificity = 0;
+            } else {
+                continue;
+            }
+
+            if (rangeSpecificity > specificity) {
+                specificity = rangeSpecificity;
+                quality = parameters == -1 ? 1 : qualityParameter(range.substring(parameters + 1));
+            }
+        }
+        return quality;
+    }
+
+    private static float qualityParameter(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            final String trimmed = parameter.trim();
+
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Math.max(0, Math.min(1, Float.parseFloat(trimmed.substring(2))));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String mediaType(String contentType) {
+        final int parameters = contentType.indexOf(';');
+
+        return (parameters == -1 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Merged(Entry[] entries, Entry[] parentEntries, Entry[] merged) {}
+
+    /**
+     * A registered codec, with its precomputed header value.
+     *
+     * @param codec The codec
+     * @param mediaType The media type of the codec (e.g. "application/json")
+     * @param contentType The "Content-Type" header value of the codec
+     */
+    public record Entry(@NotNull HermeusCodec codec, @NotNull String mediaType, @NotNull AsciiString contentType) {
+
+        Entry(HermeusCodec codec) {
+            this(codec, CodecRegistry.mediaType(codec.contentType()), AsciiString.cached(codec.contentType()));
+        }
+
+    }
+
+}
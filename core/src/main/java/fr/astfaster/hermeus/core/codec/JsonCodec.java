@@ -0,0 +1,62 @@
+package fr.astfaster.hermeus.core.codec;
+
+import com.google.gson.Gson;
+import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The JSON codec, relying on the {@linkplain Hermeus#defaultSerializer() default serializer}.
+ */
+@ApiStatus.Internal
+public class JsonCodec implements HermeusCodec {
+
+    private final Hermeus hermeus;
+
+    public JsonCodec(Hermeus hermeus) {
+        this.hermeus = hermeus;
+    }
+
+    @Override
+    public @NotNull String contentType() {
+        return "application/json; charset=UTF-8";
+    }
+
+    @Override
+    public void encode(@NotNull Object object, @NotNull ByteBuf out) throws IOException {
+        write(this.hermeus.defaultSerializer(), object, out);
+    }
+
+    @Override
+    public <T> T decode(@NotNull ByteBuf in, @NotNull Class<T> type) throws IOException {
+        try (Reader reader = new InputStreamReader(new ByteBufInputStream(in), StandardCharsets.UTF_8)) {
+            return this.hermeus.defaultSerializer().fromJson(reader, type);
+        }
+    }
+
+    /**
+     * Serializes an object straight into a buffer, without building the whole JSON string first.
+     *
+     * @param serializer The serializer to use
+     * @param object The object to serialize
+     * @param out The buffer where the JSON is written
+     * @throws IOException If the JSON couldn't be written
+     */
+    public static void write(Gson serializer, Object object, ByteBuf out) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new ByteBufOutputStream(out), StandardCharsets.UTF_8)) {
+            serializer.toJson(object, writer);
+        }
+    }
+
+}
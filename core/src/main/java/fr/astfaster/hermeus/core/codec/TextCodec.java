@@ -0,0 +1,60 @@
+package fr.astfaster.hermeus.core.codec;
+
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * The plain text codec, converting texts and scalar values (numbers, booleans and characters) from and to UTF-8.
+ */
+@ApiStatus.Internal
+public class TextCodec implements HermeusCodec {
+
+    private static final Set<Class<?>> SCALARS = Set.of(Integer.class, Long.class, Double.class, Float.class, Boolean.class, Character.class);
+
+    @Override
+    public @NotNull String contentType() {
+        return "text/plain; charset=UTF-8";
+    }
+
+    @Override
+    public boolean supports(@NotNull Class<?> type) {
+        return type == String.class || type == CharSequence.class || SCALARS.contains(type);
+    }
+
+    @Override
+    public void encode(@NotNull Object object, @NotNull ByteBuf out) {
+        ByteBufUtil.writeUtf8(out, object instanceof CharSequence sequence ? sequence : object.toString());
+    }
+
+    @Override
+    public <T> T decode(@NotNull ByteBuf in, @NotNull Class<T> type) {
+        final String text = in.toString(StandardCharsets.UTF_8);
+        final Object value;
+
+        if (type == String.class || type == CharSequence.class) {
+            value = text;
+        } else if (type == Integer.class) {
+            value = Integer.parseInt(text.trim());
+        } else if (type == Long.class) {
+            value = Long.parseLong(text.trim());
+        } else if (type == Double.class) {
+            value = Double.parseDouble(text.trim());
+        } else if (type == Float.class) {
+            value = Float.parseFloat(text.trim());
+        } else if (type == Boolean.class) {
+            value = Boolean.parseBoolean(text.trim());
+        } else if (type == Character.class && text.length() == 1) {
+            value = text.charAt(0);
+        } else {
+            throw new IllegalArgumentException("Cannot decode " + type.getName() + " from text");
+        }
+        return type.cast(value);
+    }
+
+}
@@ -0,0 +1,121 @@
+package fr.astfaster.hermeus.core.netty;
+
+import fr.astfaster.hermeus.api.memory.AllocatorMetrics;
+import fr.astfaster.hermeus.api.memory.ArenaMetrics;
+import fr.astfaster.hermeus.api.memory.ChunkListMetrics;
+import fr.astfaster.hermeus.api.memory.LeakDetection;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PoolChunkListMetric;
+import io.netty.buffer.PoolChunkMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.internal.PlatformDependent;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports the memory of the buffer allocator used by the servers (the default one of Netty), and sets the leak detection level.
+ */
+@ApiStatus.Internal
+public class NettyAllocator {
+
+    private NettyAllocator() {}
+
+    /**
+     * Takes a snapshot of the allocator's memory.<br>
+     * Arenas are locked while their chunks are counted, so it shouldn't be called in a hot path.
+     *
+     * @return The {@link AllocatorMetrics}
+     */
+    public static @NotNull AllocatorMetrics snapshot() {
+        return metrics(true);
+    }
+
+    /**
+     * Reads the gauges of the allocator that are cheap to get, e.g. to be scraped often.<br>
+     * Neither the arenas nor the pinned memory are reported, as they are only known by going through every chunk: see {@link #snapshot()}.
+     *
+     * @return The {@link AllocatorMetrics}, without arenas and with an unknown pinned memory
+     */
+    public static @NotNull AllocatorMetrics gauges() {
+        return metrics(false);
+    }
+
+    private static AllocatorMetrics metrics(boolean full) {
+        final ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+        final long maxDirectMemory = PlatformDependent.maxDirectMemory();
+        final long processDirectMemory = PlatformDependent.usedDirectMemory();
+
+        if (allocator instanceof PooledByteBufAllocator pooled) {
+            final PooledByteBufAllocatorMetric metric = pooled.metric();
+
+            // Both go through every chunk of every arena
+            final long pinnedDirectMemory = full ? pooled.pinnedDirectMemory() : -1;
+            final long pinnedHeapMemory = full ? pooled.pinnedHeapMemory() : -1;
+
+            return new AllocatorMetrics(true, metric.usedDirectMemory(), metric.usedHeapMemory(), pinnedDirectMemory, pinnedHeapMemory, maxDirectMemory, processDirectMemory,
+                    metric.chunkSize(), metric.numThreadLocalCaches(), metric.smallCacheSize(), metric.normalCacheSize(),
+                    full ? arenas(metric.directArenas()) : List.of(), full ? arenas(metric.heapArenas()) : List.of());
+        }
+
+        long usedDirectMemory = -1;
+        long usedHeapMemory = -1;
+
+        if (allocator instanceof ByteBufAllocatorMetricProvider provider) {
+            final ByteBufAllocatorMetric metric = provider.metric();
+
+            usedDirectMemory = metric.usedDirectMemory();
+            usedHeapMemory = metric.usedHeapMemory();
+        }
+        return new AllocatorMetrics(false, usedDirectMemory, usedHeapMemory, -1, -1, maxDirectMemory, processDirectMemory, 0, 0, 0, 0, List.of(), List.of());
+    }
+
+    private static List<ArenaMetrics> arenas(List<PoolArenaMetric> arenas) {
+        final List<ArenaMetrics> result = new ArrayList<>(arenas.size());
+
+        for (PoolArenaMetric arena : arenas) {
+            final List<ChunkListMetrics> chunkLists = new ArrayList<>();
+
+            for (PoolChunkListMetric chunkList : arena.chunkLists()) {
+                int chunks = 0;
+                long freeBytes = 0;
+
+                for (PoolChunkMetric chunk : chunkList) {
+                    chunks++;
+                    freeBytes += chunk.freeBytes();
+                }
+
+                chunkLists.add(new ChunkListMetrics(chunkList.minUsage(), chunkList.maxUsage(), chunks, freeBytes));
+            }
+
+            result.add(new ArenaMetrics(arena.numThreadCaches(), arena.numAllocations(), arena.numHugeAllocations(), arena.numDeallocations(), arena.numActiveAllocations(), arena.numActiveBytes(), chunkLists));
+        }
+        return result;
+    }
+
+    /**
+     * Sets the leak detection level of the whole process (Netty only has one).
+     *
+     * @param detection The {@link LeakDetection} level
+     */
+    public static void leakDetection(@NotNull LeakDetection detection) {
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.valueOf(detection.name()));
+    }
+
+    /**
+     * Returns the leak detection level of the process.
+     *
+     * @return A {@link LeakDetection} level
+     */
+    public static @NotNull LeakDetection leakDetection() {
+        return LeakDetection.valueOf(ResourceLeakDetector.getLevel().name());
+    }
+
+}
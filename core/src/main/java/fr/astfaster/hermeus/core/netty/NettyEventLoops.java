@@ -0,0 +1,107 @@
+package fr.astfaster.hermeus.core.netty;
+
+import io.netty.channel.EventLoopGroup;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the event loop groups shared by the servers of a Hermeus instance, one pair per transport.<br>
+ * The groups are created by the first server using them, and shut down once the last one released them.
+ */
+@ApiStatus.Internal
+public class NettyEventLoops {
+
+    private static final Logger LOGGER = LogManager.getLogger(NettyEventLoops.class);
+
+    private final Map<NettyTransport, Shared> groups = new EnumMap<>(NettyTransport.class);
+
+    /**
+     * Returns the shared groups of a transport, creating them if no server uses them yet.
+     *
+     * @param transport The transport of the groups
+     * @param bossThreads The number of boss threads, if the groups are created
+     * @param workerThreads The number of worker threads (0 for twice the number of cores), if the groups are created
+     * @return The {@link Groups}
+     */
+    public synchronized @NotNull Groups acquire(@NotNull NettyTransport transport, int bossThreads, int workerThreads) {
+        Shared shared = this.groups.get(transport);
+
+        if (shared == null) {
+            shared = new Shared(new Groups(transport.eventLoopGroup(NettyGroup.BOSS, bossThreads), transport.eventLoopGroup(NettyGroup.WORKER, workerThreads), true), bossThreads);
+
+            this.groups.put(transport, shared);
+        } else if (shared.bossThreads < bossThreads) {
+            // Several listening sockets then share a boss thread
+            LOGGER.warn("Shared {} event loops have {} boss threads, fewer than the {} requested", transport, shared.bossThreads, bossThreads);
+        }
+
+        shared.users++;
+
+        return shared.groups;
+    }
+
+    /**
+     * Releases groups: shared ones are shut down if no other server uses them, others right away.
+     *
+     * @param groups The {@link Groups} to release
+     */
+    public synchronized void release(@NotNull Groups groups) {
+        if (groups.shared()) {
+            final Shared shared = this.groups.values().stream()
+                    .filter(candidate -> candidate.groups == groups)
+                    .findFirst()
+                    .orElse(null);
+
+            if (shared == null || --shared.users > 0) {
+                return;
+            }
+
+            this.groups.values().remove(shared);
+        }
+
+        groups.boss().shutdownGracefully();
+        groups.worker().shutdownGracefully();
+    }
+
+    /**
+     * The event loop groups of a server.
+     *
+     * @param boss The group accepting connections
+     * @param worker The group handling the accepted connections
+     * @param shared Whether the groups are shared with other servers
+     */
+    public record Groups(@NotNull EventLoopGroup boss, @NotNull EventLoopGroup worker, boolean shared) {
+
+        /**
+         * Creates groups used by a single server.
+         *
+         * @param transport The transport of the groups
+         * @param bossThreads The number of boss threads
+         * @param workerThreads The number of worker threads; 0 for twice the number of cores
+         * @return New {@link Groups}
+         */
+        public static @NotNull Groups create(@NotNull NettyTransport transport, int bossThreads, int workerThreads) {
+            return new Groups(transport.eventLoopGroup(NettyGroup.BOSS, bossThreads), transport.eventLoopGroup(NettyGroup.WORKER, workerThreads), false);
+        }
+
+    }
+
+    private static class Shared {
+
+        private final Groups groups;
+        private final int bossThreads;
+        private int users;
+
+        private Shared(Groups groups, int bossThreads) {
+            this.groups = groups;
+            this.bossThreads = bossThreads;
+        }
+
+    }
+
+}
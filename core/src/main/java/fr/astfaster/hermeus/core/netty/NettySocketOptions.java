@@ -0,0 +1,84 @@
+package fr.astfaster.hermeus.core.netty;
+
+import fr.astfaster.hermeus.api.server.SocketOptions;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Applies {@linkplain SocketOptions socket options} to the bootstrap of a server, with the channel options of its transport.
+ */
+@ApiStatus.Internal
+public class NettySocketOptions {
+
+    private static final Logger LOGGER = LogManager.getLogger(NettySocketOptions.class);
+
+    private NettySocketOptions() {}
+
+    /**
+     * Sets the options of the listening sockets and of the accepted connections.<br>
+     * Options the transport doesn't support are ignored, with a warning.
+     *
+     * @param bootstrap The bootstrap of the server
+     * @param transport The transport of the server
+     * @param options The {@link SocketOptions} to apply
+     */
+    public static void apply(@NotNull ServerBootstrap bootstrap, @NotNull NettyTransport transport, @NotNull SocketOptions options) {
+        if (options.backlog() > 0) {
+            bootstrap.option(ChannelOption.SO_BACKLOG, options.backlog());
+        }
+
+        // Set on the listening socket, so the accepted ones get it before the handshake (the TCP window scale is negotiated with it)
+        if (options.receiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, options.receiveBufferSize());
+        }
+
+        if (options.sendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, options.sendBufferSize());
+        }
+
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(options.writeBufferLowWaterMark(), options.writeBufferHighWaterMark()))
+                .childOption(ChannelOption.TCP_NODELAY, options.tcpNoDelay())
+                .childOption(ChannelOption.SO_KEEPALIVE, options.keepAlive())
+                .childOption(ChannelOption.IP_TOS, options.trafficClass());
+
+        if (options.tcpFastOpen() > 0) {
+            if (transport == NettyTransport.EPOLL || transport == NettyTransport.IO_URING) {
+                bootstrap.option(ChannelOption.TCP_FASTOPEN, options.tcpFastOpen());
+            } else {
+                unsupported("TCP_FASTOPEN", transport);
+            }
+        }
+
+        final int deferAccept = (int) options.tcpDeferAccept().getSeconds();
+
+        if (deferAccept > 0) {
+            if (transport == NettyTransport.EPOLL) {
+                bootstrap.option(EpollChannelOption.TCP_DEFER_ACCEPT, deferAccept);
+            } else if (transport == NettyTransport.IO_URING) {
+                bootstrap.option(IOUringChannelOption.TCP_DEFER_ACCEPT, deferAccept);
+            } else {
+                unsupported("TCP_DEFER_ACCEPT", transport);
+            }
+        }
+
+        if (options.busyPoll() > 0) {
+            if (transport == NettyTransport.EPOLL) {
+                bootstrap.childOption(EpollChannelOption.SO_BUSY_POLL, options.busyPoll());
+            } else {
+                unsupported("SO_BUSY_POLL", transport);
+            }
+        }
+    }
+
+    private static void unsupported(String option, NettyTransport transport) {
+        LOGGER.warn("{} is not supported by the {} transport: ignoring it", option, transport);
+    }
+
+}
@@ -1,44 +1,139 @@
 package fr.astfaster.hermeus.core.netty;
 
+import fr.astfaster.hermeus.api.HermeusException;
+import fr.astfaster.hermeus.api.server.Transport;
+import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.kqueue.KQueueEventLoopGroup;
+import io.netty.channel.kqueue.KQueueServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.util.concurrent.ThreadFactory;
-import java.util.function.Function;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @ApiStatus.Internal
 public enum NettyTransport {
 
-    NIO("nio", NioServerSocketChannel.class, factory -> new NioEventLoopGroup(0, factory)),
-    EPOLL("epoll", EpollServerSocketChannel.class, factory -> new EpollEventLoopGroup(0, factory));
+    NIO(Transport.NIO, "nio", NioServerSocketChannel.class, NioEventLoopGroup::new, false, () -> true, () -> null),
+    EPOLL(Transport.EPOLL, "epoll", EpollServerSocketChannel.class, EpollEventLoopGroup::new, true, Epoll::isAvailable, Epoll::unavailabilityCause),
+    KQUEUE(Transport.KQUEUE, "kqueue", KQueueServerSocketChannel.class, KQueueEventLoopGroup::new, true, KQueue::isAvailable, KQueue::unavailabilityCause),
+    IO_URING(Transport.IO_URING, "io_uring", IOUringServerSocketChannel.class, IOUringEventLoopGroup::new, true, IOUring::isAvailable, IOUring::unavailabilityCause);
 
+    // Preference order of the automatic detection
+    private static final NettyTransport[] PREFERRED = {IO_URING, EPOLL, KQUEUE, NIO};
+
+    private final Transport transport;
     private final String name;
     private final Class<? extends ServerSocketChannel> serverChannelClass;
-    private final Function<ThreadFactory, EventLoopGroup> eventLoopGroupFactory;
+    private final BiFunction<Integer, ThreadFactory, EventLoopGroup> eventLoopGroupFactory;
+    private final boolean reusePort;
+    private final BooleanSupplier available;
+    private final Supplier<Throwable> unavailabilityCause;
 
-    NettyTransport(String name, Class<? extends ServerSocketChannel> serverChannelClass, Function<ThreadFactory, EventLoopGroup> eventLoopGroupFactory) {
+    NettyTransport(Transport transport, String name, Class<? extends ServerSocketChannel> serverChannelClass, BiFunction<Integer, ThreadFactory, EventLoopGroup> eventLoopGroupFactory, boolean reusePort, BooleanSupplier available, Supplier<Throwable> unavailabilityCause) {
+        this.transport = transport;
         this.name = name;
         this.serverChannelClass = serverChannelClass;
         this.eventLoopGroupFactory = eventLoopGroupFactory;
+        this.reusePort = reusePort;
+        this.available = available;
+        this.unavailabilityCause = unavailabilityCause;
     }
 
+    public Transport transport() {
+        return this.transport;
+    }
 
     public Class<? extends ServerSocketChannel> serverChannelClass() {
         return this.serverChannelClass;
     }
 
-    public EventLoopGroup eventLoopGroup(NettyGroup group) {
-        return this.eventLoopGroupFactory.apply(NettyThreadFactory.createThreadFactory(this.name, group));
+    /**
+     * Creates an event loop group of the transport.
+     *
+     * @param group The group
+     * @param threads The number of threads of the group; 0 for twice the number of cores
+     * @return A new {@link EventLoopGroup}
+     */
+    public EventLoopGroup eventLoopGroup(NettyGroup group, int threads) {
+        return this.eventLoopGroupFactory.apply(threads, NettyThreadFactory.createThreadFactory(this.name, group));
+    }
+
+    /**
+     * Checks whether several sockets of the transport can listen on the same address ({@link io.netty.channel.unix.UnixChannelOption#SO_REUSEPORT SO_REUSEPORT}).<br>
+     * The kernel then spreads the new connections between them.
+     *
+     * @return <code>true</code> if the option is supported
+     */
+    public boolean reusePort() {
+        return this.reusePort;
+    }
+
+    public boolean available() {
+        return this.available.getAsBoolean();
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
     }
 
     public static NettyTransport best() {
-        return Epoll.isAvailable() ? EPOLL : NIO;
+        for (NettyTransport transport : PREFERRED) {
+            if (transport.available()) {
+                return transport;
+            }
+        }
+        return NIO;
+    }
+
+    /**
+     * Returns the Netty transport of a transport, checking that it can be used on this system.
+     *
+     * @param transport The transport; or <code>null</code> to use the {@linkplain #best() best one}
+     * @return A {@link NettyTransport}
+     * @throws HermeusException If the transport is not available
+     */
+    public static NettyTransport of(Transport transport) {
+        if (transport == null) {
+            return best();
+        }
+
+        final NettyTransport nettyTransport = switch (transport) {
+            case NIO -> NIO;
+            case EPOLL -> EPOLL;
+            case KQUEUE -> KQUEUE;
+            case IO_URING -> IO_URING;
+        };
+
+        if (!nettyTransport.available()) {
+            throw new HermeusException("Transport " + nettyTransport.name + " is not available!", nettyTransport.unavailabilityCause.get());
+        }
+        return nettyTransport;
+    }
+
+    /**
+     * Checks whether a channel can write {@linkplain io.netty.channel.FileRegion file regions} (zero-copy transfers).
+     *
+     * @param channel The channel
+     * @return <code>true</code> if the transport of the channel supports them
+     */
+    public static boolean fileRegions(Channel channel) {
+        // Not implemented by the io_uring transport yet
+        return !(channel instanceof IOUringSocketChannel);
     }
 
 }
@@ -0,0 +1,273 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.ResponseCache;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.http.*;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The responses cached for a registered handler, with the {@linkplain ResponseCache settings} of the handler.<br>
+ * Entries are evicted in least recently used order once the cache is full, and lazily when they expire.
+ */
+@ApiStatus.Internal
+class HandlerCache {
+
+    // Approximate overhead of an entry (key, headers, map node), so that tiny responses are accounted for too
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long size;
+
+    private final ResponseCache settings;
+    private final long ttl;
+
+    HandlerCache(ResponseCache settings) {
+        this.settings = settings;
+        this.ttl = settings.ttl().toNanos();
+    }
+
+    /**
+     * Computes the key of the response of a request
+     *
+     * @param request The request
+     * @return The key; or <code>null</code> if the response of this request can't be cached
+     */
+    String key(HttpRequest request) {
+        if (!request.method().equals(HttpMethod.GET)) {
+            return null;
+        }
+
+        final List<String> keyHeaders = this.settings.keyHeaders();
+
+        if (keyHeaders.isEmpty()) {
+            return request.uri();
+        }
+
+        final StringBuilder key = new StringBuilder(request.uri());
+
+        for (String header : keyHeaders) {
+            final String value = request.headers().get(header);
+
+            key.append('\0').append(value == null ? "" : value);
+        }
+        return key.toString();
+    }
+
+    ResponseCache settings() {
+        return this.settings;
+    }
+
+    synchronized Entry get(String key) {
+        final Entry entry = this.entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            this.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the response sent by the handler.<br>
+     * If it has none, an "ETag" header is added to the response.
+     *
+     * @param key The key of the response
+     * @param response The response
+     * @return The "ETag" of the response; or <code>null</code> if it is not cached
+     */
+    String store(String key, FullHttpResponse response) {
+        if (!this.cacheable(response)) {
+            return null;
+        }
+
+        final ByteBuf content = response.content();
+        final byte[] bytes = ByteBufUtil.getBytes(content, content.readerIndex(), content.readableBytes(), false);
+        final HttpHeaders headers = response.headers();
+
+        String etag = headers.get(HttpHeaderNames.ETAG);
+
+        if (etag == null) {
+            final CRC32C checksum = new CRC32C();
+
+            checksum.update(bytes);
+            etag = "\"" + Long.toHexString(checksum.getValue()) + "-" + Integer.toHexString(bytes.length) + "\"";
+
+            headers.set(HttpHeaderNames.ETAG, etag);
+        }
+
+        final long size = (long) bytes.length + ENTRY_OVERHEAD + key.length() * 2L;
+
+        if (size > this.settings.maxSize()) {
+            return etag;
+        }
+
+        final byte[] gzipped = this.settings.precompress() ? gzip(bytes) : null;
+        final HttpHeaders storedHeaders = new DefaultHttpHeaders().set(headers)
+                .remove(HttpHeaderNames.CONNECTION)
+                .remove(HttpHeaderNames.CONTENT_LENGTH);
+        final Entry entry = new Entry(storedHeaders, bytes, gzipped, etag, gzipped != null ? gzipEtag(etag) : null, System.nanoTime() + this.ttl);
+
+        synchronized (this) {
+            this.remove(key);
+            this.entries.put(key, entry);
+            this.size += entry.size(key);
+
+            final Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+
+            while (this.size > this.settings.maxSize() && iterator.hasNext()) {
+                final Map.Entry<String, Entry> eldest = iterator.next();
+
+                this.size -= eldest.getValue().size(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        return etag;
+    }
+
+    synchronized void invalidate() {
+        this.entries.clear();
+        this.size = 0;
+    }
+
+    private void remove(String key) {
+        final Entry entry = this.entries.remove(key);
+
+        if (entry != null) {
+            this.size -= entry.size(key);
+        }
+    }
+
+    private boolean cacheable(FullHttpResponse response) {
+        if (response.status().code() != HttpResponseStatus.OK.code()) {
+            return false;
+        }
+
+        final HttpHeaders headers = response.headers();
+
+        if (headers.contains(HttpHeaderNames.SET_COOKIE) || headers.contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return false;
+        }
+
+        final String cacheControl = headers.get(HttpHeaderNames.CACHE_CONTROL);
+
+        if (cacheControl != null) {
+            final String directives = cacheControl.toLowerCase(Locale.ROOT);
+
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return false;
+            }
+        }
+
+        // A response varying on a header which is not part of the key could be served to the wrong clients
+        for (String vary : headers.getAll(HttpHeaderNames.VARY)) {
+            for (String header : vary.split(",")) {
+                final String name = header.trim();
+
+                if (!name.isEmpty() && !name.equalsIgnoreCase(HttpHeaderNames.ACCEPT_ENCODING.toString()) && !this.keyHeader(name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean keyHeader(String name) {
+        for (String header : this.settings.keyHeaders()) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {{ this.def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            return null;
+        }
+
+        final byte[] gzipped = out.toByteArray();
+
+        // Not worth it for incompressible content
+        return gzipped.length < bytes.length ? gzipped : null;
+    }
+
+    /**
+     * Derives the entity tag of the gzip version of a response from the one of its identity version.<br>
+     * Both versions have different bytes, so they can't share a strong entity tag (e.g. for range requests of caches).
+     *
+     * @param etag The entity tag of the identity version (e.g. <code>"1a2b-40"</code>)
+     * @return The entity tag of the gzip version (e.g. <code>"1a2b-40-gz"</code>)
+     */
+    static String gzipEtag(String etag) {
+        final int end = etag.lastIndexOf('"');
+
+        // Not a valid entity tag: suffixed as is
+        if (end <= 0 || end != etag.length() - 1) {
+            return etag + "-gz";
+        }
+        return etag.substring(0, end) + "-gz\"";
+    }
+
+    /**
+     * Checks whether an "If-None-Match" header matches an entity tag (with the weak comparison)
+     *
+     * @param ifNoneMatch The "If-None-Match" header of the request
+     * @param etag The entity tag of the response
+     * @return <code>true</code> if a "304 Not Modified" response can be sent
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        final String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+
+            if (trimmed.equals("*") || (trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param headers The headers of the response
+     * @param content The content of the response
+     * @param gzipped The gzip version of the content; or <code>null</code> if it is not precompressed
+     * @param etag The entity tag of the response
+     * @param gzippedEtag The entity tag of the gzip version; or <code>null</code> if it is not precompressed
+     * @param expiresAt The expiration time (in {@link System#nanoTime()} time)
+     */
+    record Entry(HttpHeaders headers, byte[] content, byte[] gzipped, String etag, String gzippedEtag, long expiresAt) {
+
+        long size(String key) {
+            return (long) this.content.length + (this.gzipped != null ? this.gzipped.length : 0) + ENTRY_OVERHEAD + key.length() * 2L;
+        }
+
+    }
+
+}
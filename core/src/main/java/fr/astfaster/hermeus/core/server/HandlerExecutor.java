@@ -0,0 +1,234 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.ExecutionMode;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs handlers outside the event loop according to their {@link ExecutionMode}, and tracks asynchronous handlers until they complete.<br>
+ * Requests of a same connection are executed one after another, so responses are written in the order of the requests.
+ */
+@ApiStatus.Internal
+class HandlerExecutor {
+
+    private static final Logger LOGGER = LogManager.getLogger(HandlerExecutor.class);
+
+    static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private static final AttributeKey<CompletableFuture<Void>> PENDING = AttributeKey.valueOf("hermeus-pending-handler");
+
+    private ExecutorService virtualThreads;
+    private ExecutorService workerPool;
+
+    private final int workerPoolSize;
+    private final Duration timeout;
+
+    HandlerExecutor(int workerPoolSize, Duration timeout) {
+        this.workerPoolSize = workerPoolSize;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Checks whether a handler of a connection is still running outside the event loop, or whether its streamed response hasn't ended yet.
+     *
+     * @param ctx The context of the connection
+     * @return <code>true</code> if a handler is pending
+     */
+    boolean pending(ChannelHandlerContext ctx) {
+        final CompletableFuture<Void> pending = ctx.channel().attr(PENDING).get();
+
+        return pending != null && !pending.isDone();
+    }
+
+    /**
+     * Makes the next requests of a connection wait for the response of a handler which ran directly on the event loop, if it isn't fully written yet (e.g. streamed, or sent later by another thread).<br>
+     * Must be called from the event loop of the connection, after the handler.
+     *
+     * @param ctx The context of the connection
+     * @param response The response sent by the handler
+     */
+    void track(ChannelHandlerContext ctx, HermeusResponseImpl response) {
+        final CompletableFuture<Void> completion = response.completion();
+
+        if (!completion.isDone()) {
+            ctx.channel().attr(PENDING).set(completion);
+        }
+    }
+
+    /**
+     * Executes a handler task. Must be called from the event loop of the connection.<br>
+     * The timeout starts when the task starts, so a request waiting for the previous one of its connection doesn't time out before its handler runs.
+     *
+     * @param ctx The context of the connection
+     * @param mode The {@link ExecutionMode} of the handler
+     * @param request The buffered request, retained until the task is finished (even if the response was already sent, e.g. after a timeout); <code>null</code> if its body is streamed
+     * @param response The response of the request
+     * @param async Whether the task is asynchronous; an asynchronous task must have sent a response when its stage completes
+     * @param task The task running the handler
+     */
+    void execute(ChannelHandlerContext ctx, ExecutionMode mode, FullHttpRequest request, HermeusResponseImpl response, boolean async, Supplier<CompletionStage<?>> task) {
+        final Executor executor = this.executor(ctx, mode);
+
+        // Lets the response resume its work on the same executor, e.g. once the connection is writable again
+        response.executor(mode == ExecutionMode.EVENT_LOOP ? null : executor);
+
+        final Attribute<CompletableFuture<Void>> attribute = ctx.channel().attr(PENDING);
+        final CompletableFuture<Void> previous = attribute.get();
+        // The outcome of the request: completed by the task, its timeout, or the closing of the connection
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Completed once the task doesn't use the request anymore
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        final Runnable start = () -> {
+            if (result.isDone()) {
+                finished.complete(null);
+                return;
+            }
+
+            if (this.timeout.toMillis() > 0) {
+                final ScheduledFuture<?> timeout = ctx.executor().schedule(() -> result.completeExceptionally(new TimeoutException()), this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+                result.whenComplete((value, cause) -> timeout.cancel(false));
+            }
+
+            try {
+                final CompletionStage<?> stage = task.get();
+
+                stage.whenComplete((value, cause) -> {
+                    if (cause != null) {
+                        result.completeExceptionally(cause);
+                    } else {
+                        result.complete(value);
+                    }
+
+                    finished.complete(null);
+                });
+
+                // Propagate timeouts and cancellations to the handler
+                result.whenComplete((value, cause) -> {
+                    if (cause instanceof CancellationException || cause instanceof TimeoutException) {
+                        stage.toCompletableFuture().cancel(true);
+                    }
+                });
+            } catch (Throwable cause) {
+                result.completeExceptionally(cause);
+                finished.complete(null);
+            }
+        };
+
+        if (request != null) {
+            request.retain();
+            finished.whenComplete((value, cause) -> request.release());
+        }
+
+        final ChannelFutureListener cancel = future -> result.cancel(false);
+
+        ctx.channel().closeFuture().addListener(cancel);
+
+        result.whenComplete((value, cause) -> {
+            ctx.channel().closeFuture().removeListener(cancel);
+
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+
+            if (cause == null) {
+                if (async && !response.sent()) {
+                    response.text("The handler didn't send any response!", HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                }
+            } else if (cause instanceof TimeoutException) {
+                response.text("Request timed out!", HttpResponseStatus.SERVICE_UNAVAILABLE);
+            } else if (cause instanceof RejectedExecutionException) {
+                response.abandon(false);
+                ctx.close();
+            } else if (cause instanceof CancellationException) {
+                response.abandon(false);
+            } else {
+                response.abandon(true);
+                ctx.pipeline().fireExceptionCaught(cause);
+            }
+        });
+
+        // A streamed response must end before the next response of the connection starts.
+        // Completed on the event loop, after the writes queued by a handler running elsewhere: the next request can't be answered before them
+        attribute.set(result.handleAsync((value, cause) -> null, ctx.executor()).thenCompose(value -> response.completion()));
+
+        try {
+            if (previous == null || previous.isDone()) {
+                if (mode == ExecutionMode.EVENT_LOOP) {
+                    start.run();
+                } else {
+                    executor.execute(start);
+                }
+            } else {
+                previous.thenRunAsync(start, executor).exceptionally(cause -> {
+                    result.completeExceptionally(cause);
+                    finished.complete(null);
+                    return null;
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            finished.complete(null);
+        }
+    }
+
+    private Executor executor(ChannelHandlerContext ctx, ExecutionMode mode) {
+        return switch (mode) {
+            case EVENT_LOOP -> ctx.executor();
+            case VIRTUAL_THREAD -> this.virtualThreads();
+            case WORKER_POOL -> this.workerPool();
+        };
+    }
+
+    private synchronized ExecutorService virtualThreads() {
+        if (this.virtualThreads == null) {
+            try {
+                this.virtualThreads = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual threads are not available on this runtime! Falling back to platform threads.");
+
+                this.virtualThreads = Executors.newCachedThreadPool(threadFactory("Hermeus Handler Thread #%d"));
+            }
+        }
+        return this.virtualThreads;
+    }
+
+    private synchronized ExecutorService workerPool() {
+        if (this.workerPool == null) {
+            this.workerPool = Executors.newFixedThreadPool(this.workerPoolSize, threadFactory("Hermeus Worker #%d"));
+        }
+        return this.workerPool;
+    }
+
+    synchronized void shutdown() {
+        if (this.virtualThreads != null) {
+            this.virtualThreads.shutdown();
+            this.virtualThreads = null;
+        }
+
+        if (this.workerPool != null) {
+            this.workerPool.shutdown();
+            this.workerPool = null;
+        }
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        return runnable -> new Thread(runnable, String.format(nameFormat, threadNumber.getAndIncrement()));
+    }
+
+}
@@ -2,35 +2,51 @@ package fr.astfaster.hermeus.core.server;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import fr.astfaster.hermeus.api.Hermeus;
 import fr.astfaster.hermeus.api.server.HermeusRequest;
 import fr.astfaster.hermeus.api.server.HermeusResponse;
 import fr.astfaster.hermeus.api.server.http.HttpParameter;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.codec.CodecRegistry;
+import fr.astfaster.hermeus.core.server.http.HttpParameterImpl;
+import fr.astfaster.hermeus.core.server.routing.Route;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.*;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @ApiStatus.Internal
 class HermeusRequestImpl implements HermeusRequest {
 
-    private final FullHttpRequest handle;
+    private final HttpRequest handle;
     private final ByteBuf body;
-    private final Map<String, HttpParameter> parameters;
+
+    // Decoded on first access; most handlers never read parameters
+    private Map<String, HttpParameter> parameters;
+
+    // The matched route and path region, used to extract path parameters
+    private Route<?> route;
+    private int pathStart;
+    private int pathEnd;
 
     private final HermeusResponse response;
 
-    private final Hermeus hermeus;
+    // The codecs of the server handling the request
+    private CodecRegistry codecs;
 
-    public HermeusRequestImpl(Hermeus hermeus, FullHttpRequest handle, Map<String, HttpParameter> parameters, HermeusResponse response) {
+    private final HermeusImpl hermeus;
+
+    public HermeusRequestImpl(HermeusImpl hermeus, HttpRequest handle, ByteBuf body, HermeusResponse response) {
         this.hermeus = hermeus;
+        this.codecs = hermeus.codecRegistry();
         this.handle = handle;
-        this.body = handle.content();
-        this.parameters = parameters;
+        this.body = body;
         this.response = response;
     }
 
@@ -46,12 +62,12 @@ class HermeusRequestImpl implements HermeusRequest {
 
     @Override
     public @Nullable HttpParameter parameter(String key) {
-        return this.parameters.get(key);
+        return this.parametersMap().get(key);
     }
 
     @Override
     public @NotNull Collection<HttpParameter> parameters() {
-        return this.parameters.values();
+        return this.parametersMap().values();
     }
 
     @Override
@@ -66,23 +82,65 @@ class HermeusRequestImpl implements HermeusRequest {
 
     @Override
     public <T> T jsonBody(@NotNull Gson deserializer, @NotNull Class<T> objectClass) {
-        final String contentType = this.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (!this.checkJsonContentType()) {
+            return null;
+        }
 
-        if (contentType == null || !contentType.contains("application/json")) {
-            this.response.text("Bad Content-Type", HttpResponseStatus.BAD_REQUEST);
+        // Parsed directly from the buffer, without decoding the whole body to a String first
+        try (Reader reader = this.bodyReader()) {
+            return deserializer.fromJson(reader, objectClass);
+        } catch (Exception e) {
+            this.response.text("Bad json body!", HttpResponseStatus.BAD_REQUEST);
+            return null;
+        }
+    }
+
+    @Override
+    public <T> Iterator<T> jsonArrayBody(@NotNull Gson deserializer, @NotNull Class<T> elementClass) {
+        if (!this.checkJsonContentType()) {
             return null;
         }
 
-        final String json = this.body.toString(StandardCharsets.UTF_8);
+        return new JsonArrayIterator<>(deserializer.newJsonReader(this.bodyReader()), deserializer, elementClass, this.response);
+    }
+
+    @Override
+    public <T> Iterator<T> jsonArrayBody(@NotNull Class<T> elementClass) {
+        return this.jsonArrayBody(this.hermeus.defaultSerializer(), elementClass);
+    }
+
+    @Override
+    public <T> T entity(@NotNull Class<T> type) {
+        final CodecRegistry.Entry codec = this.codecs.forContentType(this.headers().get(HttpHeaderNames.CONTENT_TYPE), type);
+
+        if (codec == null) {
+            this.response.text("Unsupported Content-Type", HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE);
+            return null;
+        }
 
         try {
-            return deserializer.fromJson(json, objectClass);
+            return codec.codec().decode(this.body.duplicate(), type);
         } catch (Exception e) {
-            this.response.text("Bad json body!", HttpResponseStatus.BAD_REQUEST);
+            this.response.text("Bad body!", HttpResponseStatus.BAD_REQUEST);
             return null;
         }
     }
 
+    private boolean checkJsonContentType() {
+        final String contentType = this.headers().get(HttpHeaderNames.CONTENT_TYPE);
+
+        if (contentType == null || !contentType.contains("application/json")) {
+            this.response.text("Bad Content-Type", HttpResponseStatus.BAD_REQUEST);
+            return false;
+        }
+        return true;
+    }
+
+    private Reader bodyReader() {
+        // A duplicate keeps the reader index of the body untouched for other readers
+        return new InputStreamReader(new ByteBufInputStream(this.body.duplicate()), StandardCharsets.UTF_8);
+    }
+
     @Override
     public <T> T jsonBody(@NotNull Class<T> objectClass) {
         return this.jsonBody(this.hermeus.defaultSerializer(), objectClass);
@@ -98,9 +156,59 @@ class HermeusRequestImpl implements HermeusRequest {
         return this.jsonBody(JsonObject.class);
     }
 
-    void addParameters(List<HttpParameter> pathParameters) {
-        for (HttpParameter parameter : pathParameters) {
-            this.parameters.put(parameter.key(), parameter);
+    void route(Route<?> route, int pathStart, int pathEnd) {
+        this.route = route;
+        this.pathStart = pathStart;
+        this.pathEnd = pathEnd;
+        this.parameters = null;
+    }
+
+    /**
+     * Gives the request the route matched for another request with the same URI (e.g. the one routed when its head was received).
+     *
+     * @param routed The routed request
+     */
+    void route(HermeusRequestImpl routed) {
+        this.route(routed.route, routed.pathStart, routed.pathEnd);
+    }
+
+    void codecs(CodecRegistry codecs) {
+        this.codecs = codecs;
+    }
+
+    private Map<String, HttpParameter> parametersMap() {
+        if (this.parameters == null) {
+            this.parameters = this.decodeParameters();
+        }
+        return this.parameters;
+    }
+
+    private Map<String, HttpParameter> decodeParameters() {
+        final String uri = this.handle.uri();
+        final boolean query = uri.indexOf('?') != -1;
+        final boolean path = this.route != null && this.route.dynamic();
+
+        if (!query && !path) {
+            return Map.of();
+        }
+
+        final Map<String, HttpParameter> result = new HashMap<>();
+
+        if (query) {
+            final QueryStringDecoder queryDecoder = new QueryStringDecoder(uri, StandardCharsets.UTF_8);
+
+            for (Map.Entry<String, List<String>> parameter : queryDecoder.parameters().entrySet()) {
+                result.put(parameter.getKey(), new HttpParameterImpl(parameter.getKey(), parameter.getValue()));
+            }
         }
+
+        // Path parameters take precedence over query parameters
+        if (path) {
+            for (HttpParameter parameter : this.route.parameters(uri, this.pathStart, this.pathEnd)) {
+                result.put(parameter.key(), parameter);
+            }
+        }
+        return result;
     }
+
 }
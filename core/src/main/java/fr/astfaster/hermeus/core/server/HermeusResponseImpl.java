@@ -1,53 +1,574 @@
 package fr.astfaster.hermeus.core.server;
 
 import com.google.gson.Gson;
-import fr.astfaster.hermeus.api.Hermeus;
+import fr.astfaster.hermeus.api.HermeusException;
+import fr.astfaster.hermeus.api.server.Compression;
 import fr.astfaster.hermeus.api.server.HermeusMiddleware;
 import fr.astfaster.hermeus.api.server.HermeusRequest;
 import fr.astfaster.hermeus.api.server.HermeusResponse;
+import fr.astfaster.hermeus.api.server.HermeusResponseStream;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.codec.CodecRegistry;
+import fr.astfaster.hermeus.core.codec.JsonCodec;
+import fr.astfaster.hermeus.core.netty.NettyTransport;
+import fr.astfaster.hermeus.core.server.http.ContentTypes;
+import fr.astfaster.hermeus.core.server.http.MimeTypes;
+import fr.astfaster.hermeus.core.server.http.ResponseCompressor;
+import fr.astfaster.hermeus.core.server.log.AccessLogger;
+import fr.astfaster.hermeus.core.server.metrics.HandlerMetrics;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.DateFormatter;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
+import io.netty.util.concurrent.EventExecutor;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 @ApiStatus.Internal
 class HermeusResponseImpl implements HermeusResponse {
 
+    private static final AtomicIntegerFieldUpdater<HermeusResponseImpl> SENT_UPDATER = AtomicIntegerFieldUpdater.newUpdater(HermeusResponseImpl.class, "sent");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<HermeusResponseImpl, CompletableFuture> COMPLETION_UPDATER = AtomicReferenceFieldUpdater.newUpdater(HermeusResponseImpl.class, CompletableFuture.class, "completion");
+
     private final ChannelHandlerContext ctx;
+    private final HttpRequest request;
+    private boolean keepAlive;
+    // The compression settings of the handler; null before routing
+    private Compression compression;
+    // Where the response is stored once sent, after a cache miss
+    private HandlerCache cache;
+    private String cacheKey;
+    // Recorded once the response status is sent
+    private HandlerMetrics metrics;
+    private long start;
+    // Logged once the response is sent (or at the end of its stream)
+    private AccessLogger accessLog;
+    private String route;
+
+    // A request gets only one response, even if a timed out handler tries to send one later
+    private volatile int sent;
+    // Completed once the response is fully written (or abandoned): the next response of the connection waits for it. Only created if something waits before
+    private volatile CompletableFuture<Void> completion;
+
+    // The codecs of the server handling the response
+    private CodecRegistry codecs;
+    // The executor the handler runs on; null for the event loop
+    private Executor executor;
 
-    private final Hermeus hermeus;
+    private final HermeusImpl hermeus;
 
-    public HermeusResponseImpl(Hermeus hermeus, ChannelHandlerContext ctx) {
+    public HermeusResponseImpl(HermeusImpl hermeus, ChannelHandlerContext ctx, HttpRequest request, boolean keepAlive) {
         this.hermeus = hermeus;
+        this.codecs = hermeus.codecRegistry();
         this.ctx = ctx;
+        this.request = request;
+        this.keepAlive = keepAlive;
     }
 
     @Override
     public void classic(byte[] content, @NotNull String contentType, @NotNull HttpResponseStatus status) {
-        final ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer();
+        // The array is owned by the caller: it is wrapped, not copied
+        this.respond(Unpooled.wrappedBuffer(content), ContentTypes.withCharset(contentType), status);
+    }
 
-        byteBuf.writeBytes(content);
+    private void respond(ByteBuf content, CharSequence contentType, HttpResponseStatus status) {
+        final FullHttpResponse response = this.response(status, content);
 
-        final FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, byteBuf);
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
 
-        response.headers().set(HttpHeaderNames.CONTENT_TYPE, String.format("%s; charset=UTF-8", contentType));
+        this.send(response);
+    }
 
-        this.ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    private void respond(CharSequence content, CharSequence contentType, HttpResponseStatus status) {
+        // Encoded directly in a buffer of the channel's (pooled) allocator, without intermediate byte array
+        this.respond(ByteBufUtil.writeUtf8(this.ctx.alloc(), content), contentType, status);
+    }
+
+    @Override
+    public void file(@NotNull Path file, @NotNull String contentType) {
+        final BasicFileAttributes attributes;
+
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            this.text("File not found!", HttpResponseStatus.NOT_FOUND);
+            return;
+        }
+
+        if (!attributes.isRegularFile()) {
+            this.text("File not found!", HttpResponseStatus.NOT_FOUND);
+            return;
+        }
+
+        final long length = attributes.size();
+        // HTTP dates have a precision of one second
+        final long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        final String etag = "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        final HttpHeaders requestHeaders = this.request.headers();
+
+        if (notModified(requestHeaders, etag, lastModified)) {
+            final FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_MODIFIED, Unpooled.EMPTY_BUFFER);
+
+            response.headers()
+                    .set(HttpHeaderNames.ETAG, etag)
+                    .set(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(lastModified)));
+
+            this.send(response);
+            return;
+        }
+
+        HttpResponseStatus status = HttpResponseStatus.OK;
+        long start = 0;
+        long count = length;
+
+        final String range = requestHeaders.get(HttpHeaderNames.RANGE);
+
+        if (range != null && rangeApplies(requestHeaders, etag, lastModified)) {
+            final long[] bounds = parseRange(range, length);
+
+            if (bounds != null && bounds.length == 0) {
+                final FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE, Unpooled.EMPTY_BUFFER);
+
+                response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + length);
+
+                this.send(response);
+                return;
+            } else if (bounds != null) {
+                status = HttpResponseStatus.PARTIAL_CONTENT;
+                start = bounds[0];
+                count = bounds[1] - bounds[0] + 1;
+            }
+        }
+
+        final FileChannel channel;
+
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException e) {
+            this.text("File not found!", HttpResponseStatus.NOT_FOUND);
+            return;
+        }
+
+        if (!SENT_UPDATER.compareAndSet(this, 0, 1)) {
+            closeQuietly(channel);
+            return;
+        }
+
+        this.recordMetrics(status);
+        this.logAccess(status.code(), this.request.method().equals(HttpMethod.HEAD) ? 0 : count);
+
+        // Compressed files are read in chunks, so it is only worth it for compressible content of a significant size
+        final boolean compressed = this.compression != null
+                && status == HttpResponseStatus.OK
+                && count >= this.compression.threshold()
+                && this.compression.compressible(contentType)
+                && requestHeaders.contains(HttpHeaderNames.ACCEPT_ENCODING);
+        final HttpResponse response = ResponseCompressor.response(status, compressed ? this.compression : Compression.disabled());
+
+        response.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, contentType)
+                .set(HttpHeaderNames.CONTENT_LENGTH, count)
+                .set(HttpHeaderNames.ETAG, etag)
+                .set(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(lastModified)))
+                .set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES)
+                .set(HttpHeaderNames.CONNECTION, this.keepAlive ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+
+        if (status == HttpResponseStatus.PARTIAL_CONTENT) {
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+        }
+
+        this.ctx.write(response);
+
+        final ChannelFuture future;
+
+        if (this.request.method().equals(HttpMethod.HEAD) || count == 0) {
+            closeQuietly(channel);
+
+            future = this.ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        } else if (!compressed && !(this.ctx.channel() instanceof Http2StreamChannel) && this.ctx.pipeline().get(SslHandler.class) == null && NettyTransport.fileRegions(this.ctx.channel())) {
+            // Zero-copy transfer (sendfile with epoll); only possible when the bytes are sent as they are, in an HTTP/1 connection
+            this.ctx.write(new DefaultFileRegion(channel, start, count));
+
+            future = this.ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        } else {
+            try {
+                future = this.ctx.writeAndFlush(new HttpChunkedInput(new ChunkedNioFile(channel, start, count, 8192)));
+            } catch (IOException e) {
+                closeQuietly(channel);
+                this.ctx.close();
+                this.complete();
+                return;
+            }
+        }
+
+        if (!this.keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+
+        this.complete();
+    }
+
+    @Override
+    public void file(@NotNull Path file) {
+        this.file(file, MimeTypes.of(file));
+    }
+
+    private static boolean notModified(HttpHeaders headers, String etag, long lastModified) {
+        final String ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+
+        if (ifNoneMatch != null) {
+            // Same matching as for cached responses
+            return HandlerCache.matches(ifNoneMatch, etag);
+        }
+
+        final String ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+
+        if (ifModifiedSince == null) {
+            return false;
+        }
+
+        final Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+
+        return date != null && lastModified <= date.getTime();
+    }
+
+    private static boolean rangeApplies(HttpHeaders headers, String etag, long lastModified) {
+        final String ifRange = headers.get(HttpHeaderNames.IF_RANGE);
+
+        if (ifRange == null) {
+            return true;
+        }
+
+        // Strong comparison only (RFC 9110): a weak entity tag never validates a range, and a date must be the exact modification date
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+
+        final Date date = DateFormatter.parseHttpDate(ifRange);
+
+        return date != null && date.getTime() == lastModified;
+    }
+
+    /**
+     * Parses a single "bytes" range.
+     *
+     * @return The first and last positions of the range; an empty array if it can't be satisfied; or <code>null</code> if the header must be ignored (invalid or multiple ranges)
+     */
+    private static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') != -1) {
+            return null;
+        }
+
+        final int separator = range.indexOf('-', 6);
+
+        if (separator == -1) {
+            return null;
+        }
+
+        try {
+            final String first = range.substring(6, separator).trim();
+            final String last = range.substring(separator + 1).trim();
+
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                final long suffix = Long.parseLong(last);
+
+                return suffix <= 0 || length == 0 ? new long[0] : new long[] {Math.max(0, length - suffix), length - 1};
+            }
+
+            final long start = Long.parseLong(first);
+
+            if (start >= length) {
+                return new long[0];
+            }
+
+            final long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+
+            return end < start ? null : new long[] {start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    @Override
+    public @NotNull HermeusResponseStream stream(@NotNull String contentType, @NotNull HttpResponseStatus status) {
+        if (!SENT_UPDATER.compareAndSet(this, 0, 1)) {
+            return new HermeusResponseStreamImpl(this.ctx, this.keepAlive, null, 0);
+        }
+
+        this.recordMetrics(status);
+
+        final HttpResponse response = this.compression != null ? ResponseCompressor.response(status, this.compression) : new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, ContentTypes.withCharset(contentType));
+        response.headers().set(HttpHeaderNames.CONNECTION, this.keepAlive ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+        HttpUtil.setTransferEncodingChunked(response, true);
+
+        final HermeusResponseStreamImpl stream = new HermeusResponseStreamImpl(this.ctx, this.keepAlive, this, status.code());
+
+        this.ctx.writeAndFlush(response);
+
+        return stream;
+    }
+
+    void keepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    void compression(Compression compression) {
+        this.compression = compression;
+    }
+
+    void codecs(CodecRegistry codecs) {
+        this.codecs = codecs;
+    }
+
+    void executor(Executor executor) {
+        this.executor = executor;
+    }
+
+    void metrics(HandlerMetrics metrics) {
+        this.metrics = metrics;
+        this.start = metrics.start();
+    }
+
+    /**
+     * Sets the access log of the response; called after {@link #metrics(HandlerMetrics)}, whose start time is reused.
+     *
+     * @param accessLog The {@link AccessLogger} of the server
+     * @param route The route of the handler; or <code>null</code> for unknown endpoints
+     */
+    void accessLog(AccessLogger accessLog, String route) {
+        this.accessLog = accessLog;
+        this.route = route;
+
+        if (this.metrics == null) {
+            this.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends a request which won't get any response, e.g. because its handler failed or its connection was closed.
+     *
+     * @param failed <code>true</code> if the handler failed, which is recorded as a server error
+     */
+    void abandon(boolean failed) {
+        if (!SENT_UPDATER.compareAndSet(this, 0, 1)) {
+            return;
+        }
+
+        this.logAccess(failed ? HttpResponseStatus.INTERNAL_SERVER_ERROR.code() : 0, 0);
+        this.complete();
+
+        if (this.metrics == null) {
+            return;
+        }
+
+        if (failed) {
+            this.metrics.end(this.start, HttpResponseStatus.INTERNAL_SERVER_ERROR.code());
+        } else {
+            this.metrics.cancel();
+        }
+    }
+
+    void logAccess(int status, long bytes) {
+        if (this.accessLog != null) {
+            this.accessLog.log(this.request.method().name(), this.route, status, bytes, System.nanoTime() - this.start, this.ctx.channel().remoteAddress());
+        }
+    }
+
+    private void recordMetrics(HttpResponseStatus status) {
+        if (this.metrics != null) {
+            this.metrics.end(this.start, status.code());
+        }
+    }
+
+    private FullHttpResponse response(HttpResponseStatus status, ByteBuf content) {
+        if (this.compression != null) {
+            return ResponseCompressor.response(status, content, this.compression);
+        }
+        return new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
+    }
+
+    boolean sent() {
+        return this.sent == 1;
+    }
+
+    /**
+     * Gets a future completed once the response is fully written: once it is sent, at the end of its stream (or when the connection is closed) if it is streamed, or once it is abandoned.<br>
+     * It is completed on the event loop, after the writes of the response, even if they were made from another thread.
+     *
+     * @return A {@link CompletableFuture}
+     */
+    @SuppressWarnings("unchecked")
+    CompletableFuture<Void> completion() {
+        CompletableFuture<Void> completion = this.completion;
+
+        while (completion == null) {
+            if (COMPLETION_UPDATER.compareAndSet(this, null, new CompletableFuture<Void>())) {
+                return this.completion;
+            }
+
+            completion = this.completion;
+        }
+        return completion;
+    }
+
+    /**
+     * Completes the {@linkplain #completion() completion} of the response, once it is fully written.
+     */
+    @SuppressWarnings("unchecked")
+    void complete() {
+        final EventExecutor executor = this.ctx.executor();
+
+        // Completed behind the writes queued on the event loop by other threads
+        if (!executor.inEventLoop()) {
+            try {
+                executor.execute(this::complete);
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // The event loop is shut down: nothing can be written anymore
+            }
+        }
+
+        final CompletableFuture<Void> completion = COMPLETION_UPDATER.getAndSet(this, HandlerExecutor.COMPLETED);
+
+        if (completion != null) {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * Sends the cached response of the request, if there is one.<br>
+     * Otherwise, the response sent later by the handler will be stored.
+     *
+     * @param cache The cache of the handler
+     * @return <code>true</code> if a cached response was sent
+     */
+    boolean cached(HandlerCache cache) {
+        if (this.cache != null) {
+            // Already missed
+            return false;
+        }
+
+        final String key = cache.key(this.request);
+
+        if (key == null) {
+            return false;
+        }
+
+        final HandlerCache.Entry entry = cache.get(key);
+
+        if (entry == null) {
+            this.cache = cache;
+            this.cacheKey = key;
+            return false;
+        }
+
+        final HttpHeaders requestHeaders = this.request.headers();
+        final boolean gzip = entry.gzipped() != null && ResponseCompressor.acceptsGzip(requestHeaders.get(HttpHeaderNames.ACCEPT_ENCODING));
+        // Each version has its own entity tag
+        final String etag = gzip ? entry.gzippedEtag() : entry.etag();
+
+        if (HandlerCache.matches(requestHeaders.get(HttpHeaderNames.IF_NONE_MATCH), etag)) {
+            this.send(this.notModified(etag));
+            return true;
+        }
+
+        final FullHttpResponse response = this.response(HttpResponseStatus.OK, Unpooled.wrappedBuffer(gzip ? entry.gzipped() : entry.content()));
+
+        response.headers().set(entry.headers());
+
+        if (entry.gzipped() != null) {
+            response.headers().add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        }
+
+        if (gzip) {
+            response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+            response.headers().set(HttpHeaderNames.ETAG, etag);
+        }
+
+        this.send(response);
+        return true;
+    }
+
+    private FullHttpResponse notModified(String etag) {
+        final FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_MODIFIED, Unpooled.EMPTY_BUFFER);
+
+        response.headers().set(HttpHeaderNames.ETAG, etag);
+
+        return response;
+    }
+
+    private void send(FullHttpResponse response) {
+        if (!SENT_UPDATER.compareAndSet(this, 0, 1)) {
+            response.release();
+            return;
+        }
+
+        if (this.cache != null) {
+            final String etag = this.cache.store(this.cacheKey, response);
+
+            this.cache = null;
+
+            if (etag != null && HandlerCache.matches(this.request.headers().get(HttpHeaderNames.IF_NONE_MATCH), etag)) {
+                response.release();
+                response = this.notModified(etag);
+            }
+        }
+
+        this.recordMetrics(response.status());
+        this.logAccess(response.status().code(), response.content().readableBytes());
+
+        HttpUtil.setContentLength(response, response.content().readableBytes());
+        response.headers().set(HttpHeaderNames.CONNECTION, this.keepAlive ? HttpHeaderValues.KEEP_ALIVE : HttpHeaderValues.CLOSE);
+
+        final ChannelFuture future = this.ctx.writeAndFlush(response);
+
+        if (!this.keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+
+        this.complete();
     }
 
     @Override
     public void text(@NotNull String content, @NotNull String contentType, @NotNull HttpResponseStatus status) {
-        this.classic(content.getBytes(StandardCharsets.UTF_8), contentType, status);
+        this.respond(content, ContentTypes.withCharset(contentType), status);
     }
 
     @Override
     public void text(@NotNull String content, @NotNull HttpResponseStatus status) {
-        this.text(content, HttpHeaderValues.TEXT_PLAIN.toString(), status);
+        this.respond(content, ContentTypes.TEXT_PLAIN, status);
     }
 
     @Override
@@ -57,17 +578,26 @@ class HermeusResponseImpl implements HermeusResponse {
 
     @Override
     public void html(@NotNull String html, @NotNull HttpResponseStatus status) {
-        this.text(html, HttpHeaderValues.TEXT_HTML.toString(), status);
+        this.respond(html, ContentTypes.TEXT_HTML, status);
     }
 
     @Override
     public void html(@NotNull String html) {
-        this.text(html, HttpResponseStatus.OK);
+        this.html(html, HttpResponseStatus.OK);
     }
 
     @Override
     public <T> void json(@NotNull Gson serializer, @NotNull T object, @NotNull HttpResponseStatus status) {
-        this.text(serializer.toJson(object), HttpHeaderValues.APPLICATION_JSON.toString(), status);
+        final ByteBuf content = this.ctx.alloc().buffer();
+
+        try {
+            JsonCodec.write(serializer, object, content);
+        } catch (IOException | RuntimeException e) {
+            content.release();
+            throw new HermeusException("Couldn't serialize a JSON response!", e);
+        }
+
+        this.respond(content, ContentTypes.APPLICATION_JSON, status);
     }
 
     @Override
@@ -75,6 +605,60 @@ class HermeusResponseImpl implements HermeusResponse {
         this.json(serializer, object, HttpResponseStatus.OK);
     }
 
+    @Override
+    public void entity(@NotNull Object object, @NotNull HttpResponseStatus status) {
+        final CodecRegistry.Entry codec = this.codecs.negotiate(this.request.headers().get(HttpHeaderNames.ACCEPT), object.getClass());
+
+        if (codec == null) {
+            this.text("Not Acceptable", HttpResponseStatus.NOT_ACCEPTABLE);
+            return;
+        }
+
+        final ByteBuf content = this.ctx.alloc().buffer();
+
+        try {
+            codec.codec().encode(object, content);
+        } catch (Exception e) {
+            content.release();
+            throw new HermeusException("Couldn't encode a response with " + codec.mediaType() + "!", e);
+        }
+
+        final FullHttpResponse response = this.response(status, content);
+
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, codec.contentType());
+        // The content depends on the "Accept" header, caches must take it into account
+        response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT);
+
+        this.send(response);
+    }
+
+    @Override
+    public void entity(@NotNull Object object) {
+        this.entity(object, HttpResponseStatus.OK);
+    }
+
+    @Override
+    public <T> void jsonArray(@NotNull Gson serializer, @NotNull Iterator<T> elements, @NotNull HttpResponseStatus status) {
+        final HermeusResponseStream stream = this.stream(HttpHeaderValues.APPLICATION_JSON.toString(), status);
+
+        new JsonArrayWriter<>(this.ctx, stream, serializer, elements, this.executor).run();
+    }
+
+    @Override
+    public <T> void jsonArray(@NotNull Gson serializer, @NotNull Iterator<T> elements) {
+        this.jsonArray(serializer, elements, HttpResponseStatus.OK);
+    }
+
+    @Override
+    public <T> void jsonArray(@NotNull Iterator<T> elements, @NotNull HttpResponseStatus status) {
+        this.jsonArray(this.hermeus.defaultSerializer(), elements, status);
+    }
+
+    @Override
+    public <T> void jsonArray(@NotNull Iterator<T> elements) {
+        this.jsonArray(elements, HttpResponseStatus.OK);
+    }
+
     @Override
     public <T> void json(@NotNull T object, @NotNull HttpResponseStatus status) {
         this.json(this.hermeus.defaultSerializer(), object, status);
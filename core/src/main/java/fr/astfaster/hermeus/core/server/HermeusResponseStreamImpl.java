@@ -0,0 +1,143 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.HermeusResponseStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@ApiStatus.Internal
+class HermeusResponseStreamImpl implements HermeusResponseStream {
+
+    static final AttributeKey<HermeusResponseStreamImpl> CURRENT = AttributeKey.valueOf("hermeus-response-stream");
+
+    private final Queue<Runnable> writableCallbacks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean ended;
+
+    private final ChannelHandlerContext ctx;
+    private final boolean keepAlive;
+    // The response owning the stream, logged at its end with the bytes written
+    private final HermeusResponseImpl response;
+    private final int status;
+    private long bytes;
+
+    /**
+     * Creates a stream.
+     *
+     * @param response The response owning the stream; or <code>null</code> for an inactive stream, belonging to a request which already got a response: everything written is dropped
+     * @param status The status of the response
+     */
+    HermeusResponseStreamImpl(ChannelHandlerContext ctx, boolean keepAlive, HermeusResponseImpl response, int status) {
+        this.ctx = ctx;
+        this.keepAlive = keepAlive;
+        this.response = response;
+        this.status = status;
+        this.ended = response == null;
+
+        if (response != null) {
+            ctx.channel().attr(CURRENT).set(this);
+        }
+    }
+
+    @Override
+    public void write(@NotNull ByteBuf chunk) {
+        if (this.ended) {
+            chunk.release();
+            return;
+        }
+
+        this.bytes += chunk.readableBytes();
+        this.ctx.write(new DefaultHttpContent(chunk));
+    }
+
+    @Override
+    public void write(byte[] chunk) {
+        this.write(Unpooled.wrappedBuffer(chunk));
+    }
+
+    @Override
+    public void write(@NotNull CharSequence chunk) {
+        if (this.ended) {
+            return;
+        }
+
+        this.write(ByteBufUtil.writeUtf8(this.ctx.alloc(), chunk));
+    }
+
+    @Override
+    public void flush() {
+        if (!this.ended) {
+            this.ctx.flush();
+        }
+    }
+
+    @Override
+    public void end() {
+        if (this.ended) {
+            return;
+        }
+
+        this.ended = true;
+        this.ctx.channel().attr(CURRENT).compareAndSet(this, null);
+        this.response.logAccess(this.status, this.bytes);
+
+        final ChannelFuture future = this.ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+
+        if (!this.keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+
+        // Nobody will write anymore
+        this.writableCallbacks.clear();
+        this.response.complete();
+    }
+
+    @Override
+    public boolean writable() {
+        return this.ctx.channel().isWritable();
+    }
+
+    @Override
+    public void onWritable(@NotNull Runnable callback) {
+        this.writableCallbacks.add(callback);
+
+        // The channel may have become writable before the callback was added
+        if (this.writable()) {
+            this.runWritableCallbacks();
+        }
+    }
+
+    /**
+     * Called when the connection is closed before the end of the stream.<br>
+     * The response is logged with the bytes written so far, and pending callbacks are executed so that writers waiting for writability don't wait forever; their writes will be dropped.
+     */
+    void closed() {
+        if (!this.ended) {
+            this.ended = true;
+            this.response.logAccess(this.status, this.bytes);
+        }
+
+        this.response.complete();
+        this.runWritableCallbacks();
+    }
+
+    void runWritableCallbacks() {
+        Runnable callback;
+
+        while ((callback = this.writableCallbacks.poll()) != null) {
+            callback.run();
+        }
+    }
+
+}
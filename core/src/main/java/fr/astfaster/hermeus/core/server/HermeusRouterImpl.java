@@ -3,129 +3,132 @@ package fr.astfaster.hermeus.core.server;
 import fr.astfaster.hermeus.api.HermeusException;
 import fr.astfaster.hermeus.api.server.*;
 import fr.astfaster.hermeus.api.server.http.HttpParameter;
-import fr.astfaster.hermeus.core.server.http.HttpParameterImpl;
+import fr.astfaster.hermeus.core.server.metrics.HandlerMetrics;
+import fr.astfaster.hermeus.core.server.metrics.ServerMetrics;
+import fr.astfaster.hermeus.core.server.routing.PathCursor;
+import fr.astfaster.hermeus.core.server.routing.Route;
+import fr.astfaster.hermeus.core.server.routing.RouteTree;
+import fr.astfaster.hermeus.core.server.routing.SegmentMap;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
 @ApiStatus.Internal
 class HermeusRouterImpl implements HermeusRouter {
 
-    private final Map<String, HermeusRouter> subRouters = new ConcurrentHashMap<>();
+    private static final HermeusStreamHandler.BodyStream BUFFERED_STREAM = new HermeusStreamHandler.BodyStream() {
+        @Override
+        public void pause() {}
+
+        @Override
+        public void resume() {}
+    };
+
+    private final Map<String, HermeusRouterImpl> subRouters = new ConcurrentHashMap<>();
     private final Map<HttpMethod, Map<String, RegisteredHandler>> handlers = new ConcurrentHashMap<>();
 
+    // Compiled from the registered sub-routers and handlers every time one is registered
+    private volatile SegmentMap<HermeusRouterImpl> compiledSubRouters = new SegmentMap<>();
+    private volatile Map<HttpMethod, RouteTree<RegisteredHandler>> routes = Map.of();
+
+    // Set on the root router once a stream handler is registered anywhere; until then, request heads are not routed before their body
+    private volatile boolean streamHandlers;
+
     private HermeusMiddleware middleware;
+    private HermeusAsyncMiddleware asyncMiddleware;
+    private ExecutionMode executionMode;
+    private Compression compression;
 
     private final String path;
+    private final HermeusRouterImpl parent;
 
-    public HermeusRouterImpl(String path) {
+    public HermeusRouterImpl(String path, @Nullable HermeusRouterImpl parent) {
         this.path = path;
+        this.parent = parent;
     }
 
-    void dispatch(@NotNull String[] path, @NotNull HermeusRequestImpl request, @NotNull HermeusResponse response) {
-        // The priority is to router
-        final HermeusRouterImpl subRouter = path.length > 0 ? (HermeusRouterImpl) this.subRouters.get(path[0]) : null;
-
-        // If the router is null we look for a handler
-        if (subRouter == null) {
-            final Map<String, RegisteredHandler> handlers = this.handlers.get(request.method());
-
-            if (handlers != null) {
-                final RegisteredHandler handler = this.findHandler(request, path);
+    @Nullable RegisteredHandler route(@NotNull PathCursor path, @NotNull HermeusRequestImpl request) {
+        // Iterative rather than recursive, so that the JIT can inline the whole dispatch and never allocate the cursor
+        HermeusRouterImpl router = this;
 
-                if (handler != null) {
-                    HermeusMiddleware middleware = handler.middleware();
+        // The priority is to sub-routers
+        while (path.hasSegment()) {
+            final HermeusRouterImpl subRouter = router.compiledSubRouters.get(path.uri(), path.position(), path.segmentEnd());
 
-                    if (middleware == null) {
-                        middleware = this.middleware;
-                    }
-
-                    if (middleware != null) {
-                        if (middleware.process(request, response)) {
-                            handler.handler().handle(request, response);
-                        }
-                    } else {
-                        handler.handler().handle(request, response);
-                    }
-                    return;
-                }
+            if (subRouter == null) {
+                break;
             }
 
-            response.text("Unknown endpoint!", HttpResponseStatus.NOT_FOUND);
-            return;
+            path.advance();
+            router = subRouter;
         }
 
-        subRouter.dispatch(Arrays.copyOfRange(path, 1, path.length), request, response);
+        // No more sub-router: we look for a handler
+        return router.findHandler(request, path);
     }
 
-    private RegisteredHandler findHandler(@NotNull HermeusRequestImpl request, @NotNull String[] path) {
-        final Map<String, RegisteredHandler> handlers = this.handlers.get(request.method());
+    private RegisteredHandler findHandler(@NotNull HermeusRequestImpl request, @NotNull PathCursor path) {
+        final RouteTree<RegisteredHandler> routes = this.routes.get(request.method());
 
-        if (handlers != null) {
-            final String joinedPath = String.join("", path);
-
-            // Check for an exact match first
-            RegisteredHandler handler = handlers.get(joinedPath);
-
-            if (handler != null) {
-                return handler;
-            }
+        if (routes == null) {
+            return null;
+        }
 
-            // Check for dynamic path handlers
-            for (Map.Entry<String, RegisteredHandler> entry : handlers.entrySet()) {
-                final String handlerPath = entry.getKey();
+        final Route<RegisteredHandler> route = routes.match(path.uri(), path.position(), path.end());
 
-                if (handlerPath.contains(":")) {
-                    final List<HttpParameter> pathParameters = this.extractParameters(handlerPath, joinedPath);
+        if (route == null) {
+            return null;
+        }
 
-                    if (pathParameters != null) {
-                        request.addParameters(pathParameters);
+        request.route(route, path.position(), path.end());
 
-                        return entry.getValue();
-                    }
-                }
-            }
-        }
-        return null;
+        return route.value();
     }
 
-    private List<HttpParameter> extractParameters(String handlerPath, String requestPath) {
-        final String[] handlerPathParts = handlerPath.substring(1).split("/");
-        final String[] requestPathParts = requestPath.substring(1).split("/");
+    private synchronized void compileSubRouters() {
+        final SegmentMap<HermeusRouterImpl> subRouters = new SegmentMap<>();
 
-        if (handlerPathParts.length != requestPathParts.length) {
-            return null; // Number of path segments doesn't match
+        for (Map.Entry<String, HermeusRouterImpl> entry : this.subRouters.entrySet()) {
+            subRouters.put(entry.getKey(), entry.getValue());
         }
 
-        final List<HttpParameter> result = new ArrayList<>();
+        this.compiledSubRouters = subRouters;
+    }
 
-        for (int i = 0; i < handlerPathParts.length; i++) {
-            final String handlerPathPart = handlerPathParts[i];
-            final String requestPathPart = requestPathParts[i];
+    private synchronized void compile() {
+        final Map<HttpMethod, RouteTree<RegisteredHandler>> routes = new HashMap<>();
 
-            if (handlerPathPart.startsWith(":")) {
-                final String key = handlerPathPart.substring(1);
+        for (Map.Entry<HttpMethod, Map<String, RegisteredHandler>> entry : this.handlers.entrySet()) {
+            final RouteTree<RegisteredHandler> tree = new RouteTree<>();
 
-                result.add(new HttpParameterImpl(key, List.of(requestPathPart)));
-            } else if (!handlerPathPart.equals(requestPathPart)) {
-                return null; // Path segments don't match
+            for (RegisteredHandler handler : entry.getValue().values()) {
+                tree.insert(handler.path(), handler);
             }
+
+            routes.put(entry.getKey(), tree);
         }
-        return result;
+
+        this.routes = routes;
     }
 
     @Override
     public @NotNull HermeusRouter subRouter(@NotNull String path) {
         path = path.toLowerCase(Locale.ROOT);
 
-        final HermeusRouter router = new HermeusRouterImpl(path);
+        final HermeusRouterImpl router = new HermeusRouterImpl(path, this);
 
         this.subRouters.put(path, router);
+        this.compileSubRouters();
 
         return router;
     }
@@ -135,6 +138,35 @@ class HermeusRouterImpl implements HermeusRouter {
         this.middleware = middleware;
     }
 
+    @Override
+    public void asyncMiddleware(@NotNull HermeusAsyncMiddleware middleware) {
+        this.asyncMiddleware = middleware;
+    }
+
+    @Override
+    public void executionMode(@NotNull ExecutionMode mode) {
+        this.executionMode = mode;
+    }
+
+    private @Nullable ExecutionMode resolveExecutionMode() {
+        if (this.executionMode != null) {
+            return this.executionMode;
+        }
+        return this.parent != null ? this.parent.resolveExecutionMode() : null;
+    }
+
+    @Override
+    public void compression(@NotNull Compression compression) {
+        this.compression = compression;
+    }
+
+    private @Nullable Compression resolveCompression() {
+        if (this.compression != null) {
+            return this.compression;
+        }
+        return this.parent != null ? this.parent.resolveCompression() : null;
+    }
+
     @Override
     public @NotNull RegisteredHandler get(@NotNull String path, @Nullable HermeusHandler handler) {
         return this.handler(HttpMethod.GET, path, handler);
@@ -162,6 +194,91 @@ class HermeusRouterImpl implements HermeusRouter {
 
     @Override
     public @NotNull RegisteredHandler handler(@NotNull HttpMethod method, @NotNull String path, @Nullable HermeusHandler handler) {
+        return this.register(method, path, handler, null, null);
+    }
+
+    @Override
+    public @NotNull RegisteredHandler asyncHandler(@NotNull HttpMethod method, @NotNull String path, @NotNull HermeusAsyncHandler handler) {
+        return this.register(method, path, handler::handle, handler, null);
+    }
+
+    @Override
+    public @NotNull RegisteredHandler streamHandler(@NotNull HttpMethod method, @NotNull String path, @NotNull HermeusStreamHandler handler) {
+        // When the body was already buffered, it is given as a single chunk
+        final HermeusHandler bufferedHandler = (request, response) -> {
+            final HermeusStreamHandler.BodyReader reader = handler.handle(request, response, BUFFERED_STREAM);
+
+            if (request.body().isReadable()) {
+                reader.content(request.body());
+            }
+
+            reader.end();
+        };
+
+        this.root().streamHandlers = true;
+
+        return this.register(method, path, bufferedHandler, null, handler);
+    }
+
+    /**
+     * Checks whether a stream handler is registered in the router tree.
+     *
+     * @return <code>true</code> if one is registered
+     */
+    boolean hasStreamHandlers() {
+        return this.root().streamHandlers;
+    }
+
+    private HermeusRouterImpl root() {
+        return this.parent != null ? this.parent.root() : this;
+    }
+
+    @Override
+    public @NotNull RegisteredHandler files(@NotNull String path, @NotNull Path directory) {
+        final Path root = directory.toAbsolutePath().normalize();
+        final HermeusHandler handler = (request, response) -> {
+            final HttpParameter parameter = request.parameter("file");
+            // A path, not a form: "+" is a plus sign, not an encoded space
+            final String relativePath = parameter == null ? "" : QueryStringDecoder.decodeComponent(parameter.value().replace("+", "%2B"));
+
+            Path file;
+
+            try {
+                file = root.resolve(relativePath).normalize();
+            } catch (InvalidPathException e) {
+                // E.g. a NUL character
+                response.text("File not found!", HttpResponseStatus.NOT_FOUND);
+                return;
+            }
+
+            // Never serve a file outside the directory (e.g. "/assets/../../etc/passwd")
+            if (!file.startsWith(root)) {
+                response.text("File not found!", HttpResponseStatus.NOT_FOUND);
+                return;
+            }
+
+            if (Files.isDirectory(file)) {
+                file = file.resolve("index.html");
+            }
+
+            response.file(file);
+        };
+
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        // Looking up and opening the files blocks
+        this.handler(HttpMethod.HEAD, path + "/*file", handler).executionMode(ExecutionMode.WORKER_POOL);
+
+        final RegisteredHandler registeredHandler = this.handler(HttpMethod.GET, path + "/*file", handler);
+
+        registeredHandler.executionMode(ExecutionMode.WORKER_POOL);
+
+        return registeredHandler;
+    }
+
+    private @NotNull RegisteredHandler register(HttpMethod method, String path, HermeusHandler handler, HermeusAsyncHandler asyncHandler, HermeusStreamHandler streamHandler) {
         if (!path.startsWith("/")) {
             throw new HermeusException("Invalid handler path! (not starting with '/')");
         }
@@ -170,9 +287,16 @@ class HermeusRouterImpl implements HermeusRouter {
             path = path.substring(0, path.length() - 1);
         }
 
-        final RegisteredHandler registeredHandler = new RegisteredHandler(method, path, handler);
+        final int wildcardIndex = path.indexOf("/*");
+
+        if (wildcardIndex != -1 && path.indexOf('/', wildcardIndex + 1) != -1) {
+            throw new HermeusException("Invalid handler path! (wildcard not being the last segment)");
+        }
 
-        this.handlers.merge(method, new HashMap<>(), (oldValue, newValue) -> oldValue).put(path, registeredHandler);
+        final RegisteredHandler registeredHandler = new RegisteredHandler(method, path, handler, asyncHandler, streamHandler);
+
+        this.handlers.merge(method, new ConcurrentHashMap<>(), (oldValue, newValue) -> oldValue).put(path, registeredHandler);
+        this.compile();
 
         return registeredHandler;
     }
@@ -182,17 +306,36 @@ class HermeusRouterImpl implements HermeusRouter {
         return this.path;
     }
 
-    private class RegisteredHandler implements HermeusRouter.RegisteredHandler {
+    /**
+     * Returns the path of the router from the root router.
+     *
+     * @return A path (e.g. "/v1/users"); empty for the root router
+     */
+    private String fullPath() {
+        return this.parent != null ? this.parent.fullPath() + this.path : "";
+    }
+
+    class RegisteredHandler implements HermeusRouter.RegisteredHandler {
 
         private final HttpMethod method;
         private final String path;
         private final HermeusHandler handler;
+        private final HermeusAsyncHandler asyncHandler;
+        private final HermeusStreamHandler streamHandler;
         private HermeusMiddleware middleware = HermeusRouterImpl.this.middleware;
-
-        public RegisteredHandler(HttpMethod method, String path, HermeusHandler handler) {
+        private HermeusAsyncMiddleware asyncMiddleware = HermeusRouterImpl.this.asyncMiddleware;
+        private ExecutionMode executionMode;
+        private Compression compression;
+        private volatile HandlerCache cache;
+        private volatile HandlerMetrics metrics;
+        private volatile String route;
+
+        public RegisteredHandler(HttpMethod method, String path, HermeusHandler handler, HermeusAsyncHandler asyncHandler, HermeusStreamHandler streamHandler) {
             this.method = method;
             this.path = path;
             this.handler = handler;
+            this.asyncHandler = asyncHandler;
+            this.streamHandler = streamHandler;
         }
 
         @Override
@@ -210,6 +353,16 @@ class HermeusRouterImpl implements HermeusRouter {
             return this.handler;
         }
 
+        @Override
+        public @Nullable HermeusAsyncHandler asyncHandler() {
+            return this.asyncHandler;
+        }
+
+        @Override
+        public @Nullable HermeusStreamHandler streamHandler() {
+            return this.streamHandler;
+        }
+
         @Override
         public @Nullable HermeusMiddleware middleware() {
             return this.middleware;
@@ -220,6 +373,177 @@ class HermeusRouterImpl implements HermeusRouter {
             this.middleware = middleware;
         }
 
+        @Override
+        public @Nullable HermeusAsyncMiddleware asyncMiddleware() {
+            return this.asyncMiddleware;
+        }
+
+        @Override
+        public void asyncMiddleware(@Nullable HermeusAsyncMiddleware middleware) {
+            this.asyncMiddleware = middleware;
+        }
+
+        @Override
+        public @Nullable ExecutionMode executionMode() {
+            return this.executionMode;
+        }
+
+        @Override
+        public void executionMode(@Nullable ExecutionMode mode) {
+            this.executionMode = mode;
+        }
+
+        @Nullable ExecutionMode resolveExecutionMode() {
+            return this.executionMode != null ? this.executionMode : HermeusRouterImpl.this.resolveExecutionMode();
+        }
+
+        @Override
+        public @Nullable Compression compression() {
+            return this.compression;
+        }
+
+        @Override
+        public void compression(@Nullable Compression compression) {
+            this.compression = compression;
+        }
+
+        @Nullable Compression resolveCompression() {
+            return this.compression != null ? this.compression : HermeusRouterImpl.this.resolveCompression();
+        }
+
+        @Override
+        public @Nullable ResponseCache cache() {
+            final HandlerCache cache = this.cache;
+
+            return cache != null ? cache.settings() : null;
+        }
+
+        @Override
+        public void cache(@Nullable ResponseCache cache) {
+            this.cache = cache != null ? new HandlerCache(cache) : null;
+        }
+
+        @Override
+        public void invalidateCache() {
+            final HandlerCache cache = this.cache;
+
+            if (cache != null) {
+                cache.invalidate();
+            }
+        }
+
+        /**
+         * Sends the cached response of a request, if there is one.
+         *
+         * @param response The response of the request
+         * @return <code>true</code> if a cached response was sent; <code>false</code> if the handler must be triggered
+         */
+        boolean cached(@NotNull HermeusResponse response) {
+            final HandlerCache cache = this.cache;
+
+            return cache != null && ((HermeusResponseImpl) response).cached(cache);
+        }
+
+        /**
+         * Checks whether a middleware has to be triggered before the handler
+         *
+         * @return <code>true</code> if the handler has a synchronous or an asynchronous middleware
+         */
+        boolean guarded() {
+            return this.resolveMiddleware() != null || this.resolveAsyncMiddleware() != null;
+        }
+
+        /**
+         * Returns the route of the handler: its full path, including the ones of its routers.
+         *
+         * @return A route (e.g. "/v1/users/:id")
+         */
+        String route() {
+            String route = this.route;
+
+            if (route == null) {
+                route = HermeusRouterImpl.this.fullPath() + this.path;
+
+                if (route.isEmpty()) {
+                    route = "/";
+                }
+
+                this.route = route;
+            }
+            return route;
+        }
+
+        /**
+         * Returns the metrics of the handler, with its {@linkplain #route() route}.
+         *
+         * @param serverMetrics The metrics of the server
+         * @return The {@link HandlerMetrics} of the handler
+         */
+        HandlerMetrics metrics(ServerMetrics serverMetrics) {
+            HandlerMetrics metrics = this.metrics;
+
+            if (metrics == null) {
+                metrics = serverMetrics.handler(this.method.name(), this.route());
+
+                this.metrics = metrics;
+            }
+            return metrics;
+        }
+
+        /**
+         * Checks whether the handler, or its asynchronous middleware, completes asynchronously.
+         *
+         * @return <code>true</code> if {@link #processAsync(HermeusRequest, HermeusResponse)} must be used
+         */
+        boolean async() {
+            return this.asyncHandler != null || this.resolveAsyncMiddleware() != null;
+        }
+
+        void process(@NotNull HermeusRequest request, @NotNull HermeusResponse response) {
+            final HermeusMiddleware middleware = this.resolveMiddleware();
+
+            if ((middleware == null || middleware.process(request, response)) && !this.cached(response)) {
+                this.handler.handle(request, response);
+            }
+        }
+
+        @NotNull CompletionStage<?> processAsync(@NotNull HermeusRequest request, @NotNull HermeusResponse response) {
+            final HermeusMiddleware middleware = this.resolveMiddleware();
+
+            if (middleware != null && !middleware.process(request, response)) {
+                return HandlerExecutor.COMPLETED;
+            }
+
+            final HermeusAsyncMiddleware asyncMiddleware = this.resolveAsyncMiddleware();
+
+            if (asyncMiddleware == null) {
+                return this.invoke(request, response);
+            }
+            return asyncMiddleware.process(request, response).thenCompose(result -> Boolean.TRUE.equals(result) ? this.invoke(request, response).thenApply(value -> null) : HandlerExecutor.COMPLETED);
+        }
+
+        private CompletionStage<?> invoke(HermeusRequest request, HermeusResponse response) {
+            if (this.cached(response)) {
+                return HandlerExecutor.COMPLETED;
+            }
+
+            if (this.asyncHandler != null) {
+                return this.asyncHandler.handle(request, response);
+            }
+
+            this.handler.handle(request, response);
+
+            return HandlerExecutor.COMPLETED;
+        }
+
+        HermeusMiddleware resolveMiddleware() {
+            return this.middleware != null ? this.middleware : HermeusRouterImpl.this.middleware;
+        }
+
+        private HermeusAsyncMiddleware resolveAsyncMiddleware() {
+            return this.asyncMiddleware != null ? this.asyncMiddleware : HermeusRouterImpl.this.asyncMiddleware;
+        }
+
     }
 
 }
@@ -1,29 +1,60 @@
 package fr.astfaster.hermeus.core.server;
 
 import fr.astfaster.hermeus.api.HermeusException;
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import fr.astfaster.hermeus.api.server.AccessLog;
+import fr.astfaster.hermeus.api.server.Compression;
+import fr.astfaster.hermeus.api.server.ExecutionMode;
 import fr.astfaster.hermeus.api.server.HermeusRequest;
-import fr.astfaster.hermeus.api.server.HermeusResponse;
 import fr.astfaster.hermeus.api.server.HermeusRouter;
 import fr.astfaster.hermeus.api.server.HermeusServer;
-import fr.astfaster.hermeus.api.server.http.HttpParameter;
+import fr.astfaster.hermeus.api.server.SocketOptions;
+import fr.astfaster.hermeus.api.server.Tls;
+import fr.astfaster.hermeus.api.server.Transport;
+import fr.astfaster.hermeus.api.server.metrics.HermeusMetrics;
 import fr.astfaster.hermeus.api.util.builder.BuilderException;
 import fr.astfaster.hermeus.core.HermeusImpl;
-import fr.astfaster.hermeus.core.netty.NettyGroup;
+import fr.astfaster.hermeus.core.codec.CodecRegistry;
+import fr.astfaster.hermeus.core.netty.NettyEventLoops;
+import fr.astfaster.hermeus.core.netty.NettySocketOptions;
 import fr.astfaster.hermeus.core.netty.NettyTransport;
-import fr.astfaster.hermeus.core.server.http.HttpParameterImpl;
+import fr.astfaster.hermeus.core.server.http.ResponseCompressor;
+import fr.astfaster.hermeus.core.server.log.AccessLogger;
+import fr.astfaster.hermeus.core.server.metrics.ServerMetrics;
+import fr.astfaster.hermeus.core.server.routing.PathCursor;
+import fr.astfaster.hermeus.core.server.tls.TlsContext;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.unix.UnixChannelOption;
+import io.netty.handler.codec.PrematureChannelClosureException;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.*;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AsciiString;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.FastThreadLocal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.nio.charset.StandardCharsets;
-import java.util.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ChannelHandler.Sharable
 @ApiStatus.Internal
@@ -31,20 +62,83 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
 
     private static final Logger LOGGER = LogManager.getLogger(HermeusServer.class);
 
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
+    private static final AttributeKey<Integer> SERVED_REQUESTS = AttributeKey.valueOf("hermeus-served-requests");
+
+    // Requests are routed on the event loops, one at a time: each loop reuses its cursor
+    private static final FastThreadLocal<PathCursor> CURSORS = new FastThreadLocal<>() {
+        @Override
+        protected PathCursor initialValue() {
+            return PathCursor.of("/");
+        }
+    };
+
     private boolean enabled;
 
-    private EventLoopGroup bossGroup;
-    private EventLoopGroup workerGroup;
-    private Channel channel;
+    private NettyEventLoops.Groups groups;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    // Checks the certificate files; file I/O and key parsing must not delay the accepts of a boss thread
+    private ScheduledExecutorService tlsReloader;
     private HermeusRouterImpl router;
+    private TlsContext tlsContext;
+    private NettyTransport transport;
+    private AccessLogger accessLogger;
 
     private final InetSocketAddress address;
+    private final boolean keepAlive;
+    private final Duration idleTimeout;
+    private final int maxRequestsPerConnection;
+    private final ExecutionMode executionMode;
+    private final int maxContentLength;
+    private final Compression compression;
+    private final boolean requestDecompression;
+    private final boolean http2;
+    private final int http2MaxConcurrentStreams;
+    private final Tls tls;
+    private final Transport preferredTransport;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final boolean sharedEventLoops;
+    private final int acceptors;
+    private final SocketOptions socketOptions;
+    private final String metricsEndpoint;
+    private final ServerMetrics metrics;
+    private final AccessLog accessLog;
+    private final HandlerExecutor handlerExecutor;
+    // The codecs of Hermeus, extended by the ones of the server if it has some
+    private final CodecRegistry codecs;
 
     private final HermeusImpl hermeus;
 
-    private HermeusServerImpl(HermeusImpl hermeus, InetSocketAddress address) {
+    private HermeusServerImpl(HermeusImpl hermeus, Builder builder) {
         this.hermeus = hermeus;
-        this.address = address;
+        this.address = builder.address;
+        this.keepAlive = builder.keepAlive;
+        this.idleTimeout = builder.idleTimeout;
+        this.maxRequestsPerConnection = builder.maxRequestsPerConnection;
+        this.executionMode = builder.executionMode;
+        this.maxContentLength = builder.maxContentLength;
+        this.compression = builder.compression;
+        this.requestDecompression = builder.requestDecompression;
+        this.http2 = builder.http2;
+        this.http2MaxConcurrentStreams = builder.http2MaxConcurrentStreams;
+        this.tls = builder.tls;
+        this.preferredTransport = builder.transport;
+        this.bossThreads = builder.bossThreads;
+        this.workerThreads = builder.workerThreads;
+        this.sharedEventLoops = builder.sharedEventLoops;
+        this.acceptors = builder.acceptors;
+        this.socketOptions = builder.socketOptions;
+        this.metricsEndpoint = builder.metricsEndpoint;
+        this.metrics = builder.metrics || builder.metricsEndpoint != null ? new ServerMetrics() : null;
+        this.accessLog = builder.accessLog;
+        this.handlerExecutor = new HandlerExecutor(builder.workerPoolSize, builder.handlerTimeout);
+        this.codecs = builder.codecs.isEmpty() ? hermeus.codecRegistry() : new CodecRegistry(hermeus.codecRegistry());
+
+        for (HermeusCodec codec : builder.codecs) {
+            this.codecs.register(codec);
+        }
     }
 
     @Override
@@ -53,61 +147,353 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
             throw new HermeusException("Server already enabled!");
         }
 
-        final NettyTransport transport = NettyTransport.best();
+        // Loaded first: a server with an invalid certificate must not start
+        this.tlsContext = this.tls != null ? TlsContext.create(this.tls, this.http2) : null;
+        this.accessLogger = this.accessLog != null ? new AccessLogger(this.accessLog, this.toString()) : null;
+
+        final NettyTransport transport = NettyTransport.of(this.preferredTransport);
 
-        this.bossGroup = transport.eventLoopGroup(NettyGroup.BOSS);
-        this.workerGroup = transport.eventLoopGroup(NettyGroup.WORKER);
+        this.transport = transport;
 
-        this.router = new HermeusRouterImpl("/");
+        int acceptors = this.acceptors;
+
+        if (acceptors > 1 && !transport.reusePort()) {
+            LOGGER.warn("{} can't bind several sockets on an address with the {} transport: only one will be bound", this, transport);
+
+            acceptors = 1;
+        }
+
+        // By default, each listening socket gets its own boss thread
+        final int bossThreads = this.bossThreads > 0 ? this.bossThreads : acceptors;
+
+        this.groups = this.sharedEventLoops
+                ? this.hermeus.eventLoops().acquire(transport, bossThreads, this.workerThreads)
+                : NettyEventLoops.Groups.create(transport, bossThreads, this.workerThreads);
+
+        this.router = new HermeusRouterImpl("/", null);
+
+        if (this.metricsEndpoint != null) {
+            this.router.get(this.metricsEndpoint, (request, response) -> response.text(this.metrics.prometheus(), PROMETHEUS_CONTENT_TYPE, HttpResponseStatus.OK));
+        }
 
         final ServerBootstrap bootstrap = new ServerBootstrap()
-                .group(this.bossGroup, this.workerGroup)
+                .group(this.groups.boss(), this.groups.worker())
                 .channel(transport.serverChannelClass())
-                .childOption(ChannelOption.TCP_NODELAY, true)
-                .childOption(ChannelOption.SO_KEEPALIVE, true)
-                .childOption(ChannelOption.IP_TOS, 0x18)
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(@NotNull SocketChannel ch) {
-                        final ChannelPipeline pipeline = ch.pipeline();
-
-                        pipeline.addLast("codec", new HttpServerCodec());
-                        pipeline.addLast("aggregator", new HttpObjectAggregator(Integer.MAX_VALUE));
-                        pipeline.addLast("handler", HermeusServerImpl.this);
+                        HermeusServerImpl.this.initConnection(ch);
                     }
                 });
 
-        if (transport == NettyTransport.EPOLL) {
-            bootstrap.option(ChannelOption.TCP_FASTOPEN_CONNECT, true);
+        NettySocketOptions.apply(bootstrap, transport, this.socketOptions);
+
+        if (this.metrics != null) {
+            this.metrics.start(this.groups.boss(), this.groups.worker());
         }
 
-        bootstrap.bind(this.address).addListener((ChannelFutureListener) future -> {
-            this.channel = future.channel();
+        if (this.tlsContext != null && this.tls.reloadInterval().toMillis() > 0) {
+            final long interval = this.tls.reloadInterval().toMillis();
 
-            if (!future.isSuccess()) {
-                LOGGER.error("Couldn't bind server to {}!", this.address, future.cause());
+            this.tlsReloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "Hermeus TLS Reload (" + this + ")");
+
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.tlsReloader.scheduleWithFixedDelay(this.tlsContext::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+        }
+
+        if (acceptors > 1) {
+            bootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+        }
+
+        final int sockets = acceptors;
+        final AtomicInteger failures = new AtomicInteger();
+
+        // Each socket is registered on the next boss event loop, so they accept connections in parallel
+        for (int i = 0; i < acceptors; i++) {
+            bootstrap.bind(this.address).addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    LOGGER.error("Couldn't bind server to {}!", this.address, future.cause());
+
+                    // The server never became enabled, so disable() won't release what was acquired for it
+                    if (failures.incrementAndGet() == sockets) {
+                        this.release();
+                    }
+                } else {
+                    this.channels.add(future.channel());
+                    this.enabled = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds the handlers of an accepted connection to its pipeline.
+     *
+     * @param ch The channel of the connection
+     */
+    void initConnection(Channel ch) {
+        final ChannelPipeline pipeline = ch.pipeline();
+
+        if (this.metrics != null) {
+            pipeline.addLast("stats", this.metrics.connectionStats());
+        }
+
+        final long idleTimeout = this.idleTimeout.toMillis();
+
+        if (idleTimeout > 0) {
+            pipeline.addLast("idle", new IdleStateHandler(0, 0, idleTimeout, TimeUnit.MILLISECONDS));
+        }
+
+        final TlsContext tlsContext = this.tlsContext;
+
+        if (tlsContext != null) {
+            pipeline.addLast("tls", tlsContext.newHandler(ch.alloc()));
+        }
+
+        if (this.http2) {
+            if (tlsContext != null) {
+                pipeline.addLast("alpn", this.alpnHandler());
             } else {
-                this.enabled = true;
+                this.initCleartextHttp2(pipeline);
+            }
+        } else {
+            pipeline.addLast("codec", new HttpServerCodec());
+            this.initHttp(pipeline);
+        }
+    }
+
+    /**
+     * Adds the handlers processing the HTTP messages of a connection (HTTP/1) or a stream (HTTP/2), after their codec.
+     *
+     * @param pipeline The pipeline of the connection or the stream
+     */
+    private void initHttp(ChannelPipeline pipeline) {
+        // Always present: handlers can enable compression even if the server doesn't
+        pipeline.addLast("compressor", new ResponseCompressor(this.compression));
+
+        if (this.requestDecompression) {
+            pipeline.addLast("decompressor", new HttpContentDecompressor());
+        }
+
+        pipeline.addLast("streaming", new StreamingBodyHandler(this, this.hermeus));
+        pipeline.addLast("aggregator", new HttpObjectAggregator(this.maxContentLength));
+        pipeline.addLast("chunked-writer", new ChunkedWriteHandler());
+        pipeline.addLast("handler", this);
+    }
+
+    /**
+     * Sets up a cleartext connection accepting HTTP/1, and HTTP/2 through an "Upgrade: h2c" request or directly (with prior knowledge).
+     *
+     * @param pipeline The pipeline of the connection
+     */
+    private void initCleartextHttp2(ChannelPipeline pipeline) {
+        final HttpServerCodec codec = new HttpServerCodec();
+        final HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(codec, protocol -> {
+            if (AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)) {
+                return new Http2ServerUpgradeCodec(this.http2FrameCodec(), this.http2Multiplexer());
+            }
+            return null;
+        }, this.maxContentLength);
+
+        pipeline.addLast("h2c", new CleartextHttp2ServerUpgradeHandler(codec, upgradeHandler, this.http2Handler()));
+        pipeline.addLast("http1", new SimpleChannelInboundHandler<HttpMessage>() {
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, HttpMessage msg) {
+                // No upgrade: the client sticks to HTTP/1
+                final ChannelPipeline pipeline = ctx.pipeline();
+
+                HermeusServerImpl.this.initHttp(pipeline);
+                pipeline.remove(this);
+
+                ctx.fireChannelRead(ReferenceCountUtil.retain(msg));
+            }
+        });
+    }
+
+    /**
+     * Creates the handler choosing the protocol of a TLS connection once it is negotiated with ALPN: HTTP/2, or HTTP/1 if the client doesn't support it.
+     *
+     * @return The handler to add to the pipeline of the connection, after the TLS handler
+     */
+    private ChannelHandler alpnHandler() {
+        return new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1) {
+            @Override
+            protected void configurePipeline(ChannelHandlerContext ctx, String protocol) {
+                final ChannelPipeline pipeline = ctx.pipeline();
+
+                if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                    pipeline.addLast(HermeusServerImpl.this.http2Handler());
+                } else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
+                    pipeline.addLast("codec", new HttpServerCodec());
+                    HermeusServerImpl.this.initHttp(pipeline);
+                } else {
+                    throw new IllegalStateException("Unknown protocol: " + protocol);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates the handlers of an HTTP/2 connection: each stream gets its own child channel, processing its request like an HTTP/1 connection would.
+     *
+     * @return The handler to add to the pipeline of the connection
+     */
+    private ChannelHandler http2Handler() {
+        return new ChannelInitializer<>() {
+            @Override
+            protected void initChannel(@NotNull Channel ch) {
+                ch.pipeline().addLast(HermeusServerImpl.this.http2FrameCodec(), HermeusServerImpl.this.http2Multiplexer());
+            }
+        };
+    }
+
+    private Http2FrameCodec http2FrameCodec() {
+        return Http2FrameCodecBuilder.forServer()
+                .initialSettings(Http2Settings.defaultSettings().maxConcurrentStreams(this.http2MaxConcurrentStreams))
+                .build();
+    }
+
+    private Http2MultiplexHandler http2Multiplexer() {
+        return new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+            @Override
+            protected void initChannel(@NotNull Http2StreamChannel ch) {
+                ch.pipeline().addLast("codec", new Http2StreamFrameToHttpObjectCodec(true));
+                HermeusServerImpl.this.initHttp(ch.pipeline());
             }
         });
     }
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest msg) {
-        final Map<String, HttpParameter> parameters = this.queryParameters(msg.uri());
-        final HermeusResponse response = new HermeusResponseImpl(this.hermeus, ctx);
-        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, msg, parameters, response);
-        final int parametersIndex = request.uri().indexOf("?");
+        final HermeusResponseImpl response = new HermeusResponseImpl(this.hermeus, ctx, msg, this.keepAlive(ctx, msg));
+        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, msg, msg.content(), response);
 
-        String uri = request.uri().substring(0, parametersIndex == -1 ? request.uri().length() : parametersIndex);
+        response.codecs(this.codecs);
+        request.codecs(this.codecs);
+        final HermeusRouterImpl.RegisteredHandler handler = this.route(ctx, msg, request);
+
+        if (handler == null) {
+            if (this.metrics != null) {
+                this.metrics.unmatched();
+            }
+
+            if (this.accessLogger != null) {
+                response.accessLog(this.accessLogger, null);
+            }
 
-        if (uri.endsWith("/")) {
-            uri = uri.substring(0, uri.length() - 1);
+            if (this.handlerExecutor.pending(ctx)) {
+                // Sent after the response of the previous request, like any other response
+                this.handlerExecutor.execute(ctx, ExecutionMode.EVENT_LOOP, msg, response, false, () -> {
+                    response.text("Unknown endpoint!", HttpResponseStatus.NOT_FOUND);
+                    return HandlerExecutor.COMPLETED;
+                });
+            } else {
+                response.text("Unknown endpoint!", HttpResponseStatus.NOT_FOUND);
+            }
+            return;
+        }
+
+        response.compression(this.compression(handler));
+        this.instrument(handler, response);
+
+        final ExecutionMode mode = this.executionMode(handler);
+
+        // Cached responses are sent right away, unless something has to run before or a previous response is pending
+        if (!handler.guarded() && !this.handlerExecutor.pending(ctx) && handler.cached(response)) {
+            return;
+        }
+
+        if (handler.async()) {
+            this.handlerExecutor.execute(ctx, mode, msg, response, true, () -> handler.processAsync(request, response));
+        } else if (mode == ExecutionMode.EVENT_LOOP && !this.handlerExecutor.pending(ctx)) {
+            // Run directly on the event loop unless a previous request of the connection is still being handled
+            try {
+                handler.process(request, response);
+            } catch (Throwable cause) {
+                response.abandon(true);
+                throw cause;
+            }
+
+            this.handlerExecutor.track(ctx, response);
+        } else {
+            this.handlerExecutor.execute(ctx, mode, msg, response, false, () -> {
+                handler.process(request, response);
+                return HandlerExecutor.COMPLETED;
+            });
+        }
+    }
+
+    HermeusRouterImpl.RegisteredHandler route(HttpRequest msg, HermeusRequestImpl request) {
+        return this.router.route(CURSORS.get().reset(msg.uri()), request);
+    }
+
+    /**
+     * Routes a request, unless it was already routed when its head was received.
+     */
+    private HermeusRouterImpl.RegisteredHandler route(ChannelHandlerContext ctx, HttpRequest msg, HermeusRequestImpl request) {
+        final StreamingBodyHandler.Routed routed = ctx.channel().attr(StreamingBodyHandler.ROUTED).getAndSet(null);
+
+        if (routed == null) {
+            return this.route(msg, request);
+        }
+
+        if (routed.handler() != null) {
+            request.route(routed.request());
+        }
+        return routed.handler();
+    }
+
+    boolean hasStreamHandlers() {
+        return this.router.hasStreamHandlers();
+    }
+
+    ExecutionMode executionMode(HermeusRouterImpl.RegisteredHandler handler) {
+        final ExecutionMode mode = handler.resolveExecutionMode();
+
+        return mode != null ? mode : this.executionMode;
+    }
+
+    HandlerExecutor handlerExecutor() {
+        return this.handlerExecutor;
+    }
+
+    Compression compression(HermeusRouterImpl.RegisteredHandler handler) {
+        final Compression compression = handler.resolveCompression();
+
+        return compression != null ? compression : this.compression;
+    }
+
+    /**
+     * Attaches the metrics of a handler and the access log to the response of one of its requests.
+     */
+    void instrument(HermeusRouterImpl.RegisteredHandler handler, HermeusResponseImpl response) {
+        if (this.metrics != null) {
+            response.metrics(handler.metrics(this.metrics));
         }
 
-        final String[] path = uri.split("((?=/))");
+        if (this.accessLogger != null) {
+            response.accessLog(this.accessLogger, handler.route());
+        }
+    }
+
+    boolean keepAlive(ChannelHandlerContext ctx, HttpRequest request) {
+        if (!this.keepAlive || !HttpUtil.isKeepAlive(request)) {
+            return false;
+        }
+
+        if (this.maxRequestsPerConnection <= 0) {
+            return true;
+        }
+
+        final Integer served = ctx.channel().attr(SERVED_REQUESTS).get();
+        final int count = served == null ? 1 : served + 1;
+
+        ctx.channel().attr(SERVED_REQUESTS).set(count);
 
-        this.router.dispatch(path, request, response);
+        return count < this.maxRequestsPerConnection;
     }
 
     @Override
@@ -115,9 +501,44 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
         ctx.flush();
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        final HermeusResponseStreamImpl stream = ctx.channel().attr(HermeusResponseStreamImpl.CURRENT).getAndSet(null);
+
+        if (stream != null) {
+            stream.closed();
+        }
+
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            final HermeusResponseStreamImpl stream = ctx.channel().attr(HermeusResponseStreamImpl.CURRENT).get();
+
+            if (stream != null) {
+                stream.runWritableCallbacks();
+            }
+        }
+
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object event) throws Exception {
+        if (event instanceof IdleStateEvent) {
+            ctx.close();
+            return;
+        }
+
+        super.userEventTriggered(ctx, event);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-        if (!(cause instanceof SocketException)) {
+        // Closed connections (e.g. after a too large request) are not server errors
+        if (!(cause instanceof SocketException) && !(cause instanceof PrematureChannelClosureException)) {
             LOGGER.error("{} encountered an error", this, cause);
         }
 
@@ -132,9 +553,67 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
 
         this.enabled = false;
 
-        this.channel.close().syncUninterruptibly();
-        this.bossGroup.shutdownGracefully();
-        this.workerGroup.shutdownGracefully();
+        for (Channel channel : this.channels) {
+            channel.close().syncUninterruptibly();
+        }
+
+        this.channels.clear();
+        this.handlerExecutor.shutdown();
+        this.release();
+    }
+
+    /**
+     * Releases what {@link #enable()} acquired: metrics probes, TLS reload thread, event loops and access log.
+     */
+    private void release() {
+        if (this.metrics != null) {
+            this.metrics.stop();
+        }
+
+        if (this.tlsReloader != null) {
+            this.tlsReloader.shutdownNow();
+            this.tlsReloader = null;
+        }
+
+        if (this.groups != null) {
+            this.hermeus.eventLoops().release(this.groups);
+            this.groups = null;
+        }
+
+        if (this.accessLogger != null) {
+            this.accessLogger.close();
+            this.accessLogger = null;
+        }
+    }
+
+    @Override
+    public @Nullable HermeusMetrics metrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public @NotNull List<HermeusCodec> codecs() {
+        return this.codecs.codecs();
+    }
+
+    CodecRegistry codecRegistry() {
+        return this.codecs;
+    }
+
+    @Override
+    public @Nullable Transport transport() {
+        return this.transport != null ? this.transport.transport() : null;
+    }
+
+    @Override
+    public void reloadTls() {
+        final TlsContext tlsContext = this.tlsContext;
+
+        if (tlsContext == null) {
+            throw new HermeusException(this.tls == null ? "TLS not configured!" : "Server not enabled!");
+        }
+
+        tlsContext.reload();
     }
 
     @Override
@@ -152,17 +631,6 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
         return this.router;
     }
 
-    private Map<String, HttpParameter> queryParameters(String uri) {
-        final QueryStringDecoder queryDecoder = new QueryStringDecoder(uri, StandardCharsets.UTF_8);
-        final Map<String, List<String>> uriParameters = queryDecoder.parameters();
-        final Map<String, HttpParameter> result = new HashMap<>();
-
-        for (Map.Entry<String, List<String>> parameter : uriParameters.entrySet()) {
-            result.put(parameter.getKey(), new HttpParameterImpl(parameter.getKey(), parameter.getValue()));
-        }
-        return result;
-    }
-
     @Override
     public String toString() {
         return "HermeusServer[" + this.address.toString() + "]";
@@ -171,6 +639,28 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
     public static class Builder implements HermeusServer.Builder {
 
         private InetSocketAddress address;
+        private boolean keepAlive = true;
+        private Duration idleTimeout = Duration.ofSeconds(60);
+        private int maxRequestsPerConnection;
+        private ExecutionMode executionMode = ExecutionMode.EVENT_LOOP;
+        private int workerPoolSize = 200;
+        private Duration handlerTimeout = Duration.ofSeconds(30);
+        private int maxContentLength = 16 * 1024 * 1024;
+        private Compression compression = Compression.disabled();
+        private boolean requestDecompression = true;
+        private boolean http2;
+        private int http2MaxConcurrentStreams = 1000;
+        private Tls tls;
+        private Transport transport;
+        private int bossThreads;
+        private int workerThreads;
+        private boolean sharedEventLoops;
+        private int acceptors = 1;
+        private SocketOptions socketOptions = SocketOptions.defaults();
+        private boolean metrics;
+        private String metricsEndpoint;
+        private AccessLog accessLog;
+        private final List<HermeusCodec> codecs = new ArrayList<>();
 
         private final HermeusImpl hermeus;
 
@@ -194,13 +684,173 @@ public class HermeusServerImpl extends SimpleChannelInboundHandler<FullHttpReque
             return this.address("0.0.0.0", port);
         }
 
+        @Override
+        public @NotNull HermeusServer.Builder keepAlive(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder idleTimeout(@NotNull Duration timeout) {
+            this.idleTimeout = timeout;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder maxRequestsPerConnection(int maxRequests) {
+            this.maxRequestsPerConnection = maxRequests;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder executionMode(@NotNull ExecutionMode mode) {
+            this.executionMode = mode;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder workerPoolSize(int size) {
+            this.workerPoolSize = size;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder handlerTimeout(@NotNull Duration timeout) {
+            this.handlerTimeout = timeout;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder maxContentLength(int maxContentLength) {
+            this.maxContentLength = maxContentLength;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder compression(@NotNull Compression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder requestDecompression(boolean decompress) {
+            this.requestDecompression = decompress;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder http2MaxConcurrentStreams(int maxStreams) {
+            this.http2MaxConcurrentStreams = maxStreams;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder codec(@NotNull HermeusCodec codec) {
+            this.codecs.add(codec);
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder transport(@Nullable Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder bossThreads(int threads) {
+            this.bossThreads = threads;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder workerThreads(int threads) {
+            this.workerThreads = threads;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder sharedEventLoops(boolean shared) {
+            this.sharedEventLoops = shared;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder acceptors(int acceptors) {
+            this.acceptors = acceptors;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder socketOptions(@NotNull SocketOptions options) {
+            this.socketOptions = options;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder metrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder metricsEndpoint(@Nullable String path) {
+            this.metricsEndpoint = path;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder accessLog(@Nullable AccessLog accessLog) {
+            this.accessLog = accessLog;
+            return this;
+        }
+
+        @Override
+        public @NotNull HermeusServer.Builder tls(@Nullable Tls tls) {
+            this.tls = tls;
+            return this;
+        }
+
         @Override
         public HermeusServer build() {
             if (this.address == null) {
                 throw new BuilderException(this.getClass(), "address");
             }
 
-            final HermeusServer server = new HermeusServerImpl(this.hermeus, this.address);
+            if (this.workerPoolSize <= 0) {
+                throw new BuilderException(this.getClass(), "workerPoolSize");
+            }
+
+            if (this.maxContentLength < 0) {
+                throw new BuilderException(this.getClass(), "maxContentLength");
+            }
+
+            if (this.bossThreads < 0) {
+                throw new BuilderException(this.getClass(), "bossThreads");
+            }
+
+            if (this.workerThreads < 0) {
+                throw new BuilderException(this.getClass(), "workerThreads");
+            }
+
+            if (this.acceptors <= 0) {
+                throw new BuilderException(this.getClass(), "acceptors");
+            }
+
+            if (this.metricsEndpoint != null && !this.metricsEndpoint.startsWith("/")) {
+                throw new BuilderException(this.getClass(), "metricsEndpoint");
+            }
+
+            if (this.http2MaxConcurrentStreams <= 0) {
+                throw new BuilderException(this.getClass(), "http2MaxConcurrentStreams");
+            }
+
+            final HermeusServer server = new HermeusServerImpl(this.hermeus, this);
 
             this.hermeus.addServer(server);
 
@@ -0,0 +1,86 @@
+package fr.astfaster.hermeus.core.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import fr.astfaster.hermeus.api.server.HermeusResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Deserializes the elements of a JSON array one at a time, as they are iterated.<br>
+ * A malformed body ends the iteration and sends a "400 Bad Request" response, like a malformed body given to {@code jsonBody(...)}.
+ */
+@ApiStatus.Internal
+class JsonArrayIterator<T> implements Iterator<T> {
+
+    private boolean started;
+    private boolean finished;
+
+    private final JsonReader reader;
+    private final Gson deserializer;
+    private final Class<T> elementClass;
+    private final HermeusResponse response;
+
+    JsonArrayIterator(JsonReader reader, Gson deserializer, Class<T> elementClass, HermeusResponse response) {
+        this.reader = reader;
+        this.deserializer = deserializer;
+        this.elementClass = elementClass;
+        this.response = response;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.finished) {
+            return false;
+        }
+
+        try {
+            if (!this.started) {
+                this.started = true;
+                this.reader.beginArray();
+            }
+
+            if (this.reader.hasNext()) {
+                return true;
+            }
+
+            this.reader.endArray();
+
+            if (this.reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonParseException("Unexpected content after the JSON array");
+            }
+
+            this.finished = true;
+            return false;
+        } catch (IOException | RuntimeException e) {
+            this.fail();
+            return false;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            return this.deserializer.fromJson(this.reader, this.elementClass);
+        } catch (RuntimeException e) {
+            this.fail();
+            throw new NoSuchElementException("Bad json body!");
+        }
+    }
+
+    private void fail() {
+        this.finished = true;
+        this.response.text("Bad json body!", HttpResponseStatus.BAD_REQUEST);
+    }
+
+}
@@ -0,0 +1,122 @@
+package fr.astfaster.hermeus.core.server;
+
+import com.google.gson.Gson;
+import fr.astfaster.hermeus.api.server.HermeusResponseStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandlerContext;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serializes the elements of a JSON array into the chunks of a {@linkplain HermeusResponseStream streamed response}.<br>
+ * Writing stops when the connection is not writable anymore, and resumes once it is, on the executor the handler ran on: serializing the remaining elements doesn't block the event loop.
+ */
+@ApiStatus.Internal
+class JsonArrayWriter<T> implements Runnable {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private boolean started;
+
+    private ByteBuf chunk;
+    private Writer writer;
+
+    private final ChannelHandlerContext ctx;
+    private final HermeusResponseStream stream;
+    private final Gson serializer;
+    private final Iterator<T> elements;
+    // Null if the handler ran on the event loop, where the writability callbacks are run
+    private final Executor executor;
+
+    JsonArrayWriter(ChannelHandlerContext ctx, HermeusResponseStream stream, Gson serializer, Iterator<T> elements, Executor executor) {
+        this.ctx = ctx;
+        this.stream = stream;
+        this.serializer = serializer;
+        this.elements = elements;
+        this.executor = executor;
+    }
+
+    @Override
+    public void run() {
+        try {
+            this.newChunk();
+
+            if (!this.started) {
+                this.started = true;
+                this.writer.write('[');
+            }
+
+            while (this.elements.hasNext()) {
+                if (!this.ctx.channel().isActive()) {
+                    this.chunk.release();
+                    this.chunk = null;
+                    return;
+                }
+
+                this.serializer.toJson(this.elements.next(), this.writer);
+
+                if (this.elements.hasNext()) {
+                    this.writer.write(',');
+                }
+
+                this.writer.flush();
+
+                if (this.chunk.readableBytes() >= CHUNK_SIZE) {
+                    this.writeChunk();
+
+                    if (!this.stream.writable()) {
+                        this.stream.flush();
+                        this.stream.onWritable(this.executor == null ? this : this::resume);
+                        return;
+                    }
+
+                    this.newChunk();
+                }
+            }
+
+            this.writer.write(']');
+            this.writer.flush();
+            this.writeChunk();
+            this.stream.end();
+        } catch (Exception e) {
+            if (this.chunk != null) {
+                this.chunk.release();
+                this.chunk = null;
+            }
+
+            // The status has already been sent: the only way to tell the client is to close the connection
+            this.ctx.pipeline().fireExceptionCaught(e);
+            this.ctx.close();
+        }
+    }
+
+    private void resume() {
+        try {
+            this.executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            // The server is stopping
+            this.ctx.close();
+        }
+    }
+
+    private void writeChunk() {
+        final ByteBuf chunk = this.chunk;
+
+        // The stream owns the chunk from now on
+        this.chunk = null;
+        this.stream.write(chunk);
+    }
+
+    private void newChunk() {
+        this.chunk = this.ctx.alloc().buffer(CHUNK_SIZE);
+        this.writer = new OutputStreamWriter(new ByteBufOutputStream(this.chunk), StandardCharsets.UTF_8);
+    }
+
+}
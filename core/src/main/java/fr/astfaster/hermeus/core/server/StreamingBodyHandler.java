@@ -0,0 +1,284 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.ExecutionMode;
+import fr.astfaster.hermeus.api.server.HermeusMiddleware;
+import fr.astfaster.hermeus.api.server.HermeusStreamHandler;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Sits before the aggregator and hands request bodies to {@linkplain HermeusStreamHandler stream handlers} chunk by chunk.<br>
+ * Requests not targeting a stream handler are passed as they are to the aggregator, with the result of their routing so that they are not routed twice.<br>
+ * A stream handler is started according to its {@link ExecutionMode}, after the previous requests of the connection; meanwhile, the received messages are queued.
+ */
+@ApiStatus.Internal
+class StreamingBodyHandler extends ChannelInboundHandlerAdapter implements HermeusStreamHandler.BodyStream {
+
+    private static final FullHttpResponse CONTINUE = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER);
+
+    /** The routing of the request passed to the aggregator, if it was routed here */
+    static final AttributeKey<Routed> ROUTED = AttributeKey.valueOf("hermeus-routed-request");
+
+    // Messages received while a stream handler is starting
+    private final Queue<Object> queue = new ArrayDeque<>();
+
+    private State state = State.IDLE;
+    private HermeusStreamHandler.BodyReader reader;
+    private HermeusResponseImpl response;
+    private ChannelHandlerContext ctx;
+
+    private final HermeusServerImpl server;
+    private final HermeusImpl hermeus;
+
+    StreamingBodyHandler(HermeusServerImpl server, HermeusImpl hermeus) {
+        this.server = server;
+        this.hermeus = hermeus;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (this.state == State.STARTING || !this.queue.isEmpty()) {
+            this.queue.add(msg);
+            return;
+        }
+
+        this.read(ctx, msg);
+    }
+
+    private void read(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof HttpRequest request && !(msg instanceof FullHttpRequest)) {
+            this.state = this.start(ctx, request);
+
+            if (this.state == State.PASSTHROUGH) {
+                ctx.fireChannelRead(msg);
+            } else {
+                ReferenceCountUtil.release(msg);
+            }
+        } else if (msg instanceof HttpContent content && this.state != State.IDLE && this.state != State.PASSTHROUGH) {
+            try {
+                if (this.state == State.STREAMING && content.content().isReadable()) {
+                    this.reader.content(content.content());
+                }
+
+                if (content instanceof LastHttpContent) {
+                    if (this.state == State.STREAMING) {
+                        this.reader.end();
+                    }
+
+                    // The handler (or a rejecting middleware) may respond later, from any thread: the next request waits for it
+                    this.server.handlerExecutor().track(ctx, this.response);
+                    this.reset();
+                }
+            } catch (Throwable cause) {
+                this.fail(cause);
+
+                ctx.fireExceptionCaught(cause);
+            } finally {
+                content.release();
+            }
+            return;
+        } else {
+            ctx.fireChannelRead(msg);
+        }
+
+        if (msg instanceof LastHttpContent && this.state == State.PASSTHROUGH) {
+            this.reset();
+        }
+    }
+
+    private State start(ChannelHandlerContext ctx, HttpRequest msg) {
+        ctx.channel().attr(ROUTED).set(null);
+
+        // Requests without body are never streamed, and nothing is streamed without stream handlers
+        if (!HttpUtil.isTransferEncodingChunked(msg) && HttpUtil.getContentLength(msg, 0L) == 0L || !this.server.hasStreamHandlers()) {
+            return State.PASSTHROUGH;
+        }
+
+        // Keep-alive is only resolved once the request is known to be streamed, as it counts the requests of the connection
+        final HermeusResponseImpl response = new HermeusResponseImpl(this.hermeus, ctx, msg, false);
+        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, msg, Unpooled.EMPTY_BUFFER, response);
+
+        response.codecs(this.server.codecRegistry());
+        request.codecs(this.server.codecRegistry());
+        final HermeusRouterImpl.RegisteredHandler handler = this.server.route(msg, request);
+
+        if (handler == null || handler.streamHandler() == null) {
+            ctx.channel().attr(ROUTED).set(new Routed(handler, request));
+            return State.PASSTHROUGH;
+        }
+
+        response.keepAlive(this.server.keepAlive(ctx, msg));
+        response.compression(this.server.compression(handler));
+        this.server.instrument(handler, response);
+
+        this.response = response;
+
+        final ExecutionMode mode = this.server.executionMode(handler);
+        final HandlerExecutor executor = this.server.handlerExecutor();
+
+        if (mode == ExecutionMode.EVENT_LOOP && !executor.pending(ctx)) {
+            final HermeusStreamHandler.BodyReader reader = this.handle(ctx, msg, handler, request, response);
+
+            if (reader == null) {
+                return State.DISCARDING;
+            }
+
+            this.reader = reader;
+
+            return State.STREAMING;
+        }
+
+        // The body waits for the handler to be started
+        this.pause();
+
+        executor.execute(ctx, mode, null, response, false, () -> {
+            HermeusStreamHandler.BodyReader reader = null;
+
+            try {
+                reader = this.handle(ctx, msg, handler, request, response);
+            } finally {
+                final HermeusStreamHandler.BodyReader started = reader;
+
+                if (ctx.executor().inEventLoop()) {
+                    this.started(started);
+                } else {
+                    ctx.executor().execute(() -> this.started(started));
+                }
+            }
+            return HandlerExecutor.COMPLETED;
+        });
+
+        return State.STARTING;
+    }
+
+    /**
+     * Runs the middleware of a stream handler, then the handler.
+     *
+     * @return The reader of the body; or <code>null</code> if the middleware rejected the request
+     */
+    private HermeusStreamHandler.BodyReader handle(ChannelHandlerContext ctx, HttpRequest msg, HermeusRouterImpl.RegisteredHandler handler, HermeusRequestImpl request, HermeusResponseImpl response) {
+        final HermeusMiddleware middleware = handler.resolveMiddleware();
+
+        if (middleware != null && !middleware.process(request, response)) {
+            return null;
+        }
+
+        if (HttpUtil.is100ContinueExpected(msg)) {
+            ctx.writeAndFlush(CONTINUE.retainedDuplicate());
+        }
+
+        return handler.streamHandler().handle(request, response, this);
+    }
+
+    /**
+     * Called on the event loop once a stream handler which didn't run on it is started, to read the queued messages.
+     *
+     * @param reader The reader of the body; or <code>null</code> if the request was rejected or the handler failed
+     */
+    private void started(HermeusStreamHandler.BodyReader reader) {
+        if (this.state != State.STARTING) {
+            // The connection was closed in the meantime
+            if (reader != null) {
+                reader.failed(new ClosedChannelException());
+            }
+            return;
+        }
+
+        this.reader = reader;
+        this.state = reader != null ? State.STREAMING : State.DISCARDING;
+        this.resume();
+
+        Object msg;
+
+        while (this.state != State.STARTING && (msg = this.queue.poll()) != null) {
+            this.read(this.ctx, msg);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (this.state == State.STREAMING) {
+            this.fail(new ClosedChannelException());
+        } else if (this.state == State.STARTING) {
+            this.reset();
+        }
+
+        Object msg;
+
+        while ((msg = this.queue.poll()) != null) {
+            ReferenceCountUtil.release(msg);
+        }
+
+        super.channelInactive(ctx);
+    }
+
+    private void fail(Throwable cause) {
+        final HermeusStreamHandler.BodyReader reader = this.reader;
+
+        this.reset();
+
+        if (reader != null) {
+            reader.failed(cause);
+        }
+    }
+
+    private void reset() {
+        this.state = State.IDLE;
+        this.reader = null;
+        this.response = null;
+
+        // A paused body must not leave the connection paused for the next request
+        this.resume();
+    }
+
+    @Override
+    public void pause() {
+        this.ctx.channel().config().setAutoRead(false);
+    }
+
+    @Override
+    public void resume() {
+        if (!this.ctx.channel().config().isAutoRead()) {
+            this.ctx.channel().config().setAutoRead(true);
+        }
+    }
+
+    private enum State {
+
+        /** Waiting for a request */
+        IDLE,
+        /** The current request is given to the next handlers */
+        PASSTHROUGH,
+        /** The stream handler of the current request is waiting to be started; received messages are queued */
+        STARTING,
+        /** The body of the current request is given to a stream handler */
+        STREAMING,
+        /** The body of the current request is dropped (e.g. rejected by a middleware) */
+        DISCARDING
+
+    }
+
+    /**
+     * The routing of a request done when its head was received.
+     *
+     * @param handler The matched handler; or <code>null</code> if none matched
+     * @param request The routed request, holding the matched route
+     */
+    record Routed(HermeusRouterImpl.RegisteredHandler handler, HermeusRequestImpl request) {}
+
+}
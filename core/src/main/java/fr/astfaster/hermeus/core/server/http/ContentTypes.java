@@ -0,0 +1,55 @@
+package fr.astfaster.hermeus.core.server.http;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.AsciiString;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the "Content-Type" header values sent by responses, so they are neither formatted nor encoded again on every response.
+ */
+@ApiStatus.Internal
+public class ContentTypes {
+
+    public static final AsciiString TEXT_PLAIN = AsciiString.cached(HttpHeaderValues.TEXT_PLAIN + "; charset=UTF-8");
+    public static final AsciiString TEXT_HTML = AsciiString.cached(HttpHeaderValues.TEXT_HTML + "; charset=UTF-8");
+    public static final AsciiString APPLICATION_JSON = AsciiString.cached(HttpHeaderValues.APPLICATION_JSON + "; charset=UTF-8");
+
+    // Content types are usually constants, but nothing prevents a handler from building them dynamically
+    private static final int MAX_CACHED = 256;
+
+    private static final Map<String, AsciiString> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        CACHE.put(HttpHeaderValues.TEXT_PLAIN.toString(), TEXT_PLAIN);
+        CACHE.put(HttpHeaderValues.TEXT_HTML.toString(), TEXT_HTML);
+        CACHE.put(HttpHeaderValues.APPLICATION_JSON.toString(), APPLICATION_JSON);
+    }
+
+    private ContentTypes() {}
+
+    /**
+     * Returns the header value of a content type with the UTF-8 charset (e.g. "text/plain" -> "text/plain; charset=UTF-8").
+     *
+     * @param contentType The content type
+     * @return The header value
+     */
+    public static @NotNull CharSequence withCharset(@NotNull String contentType) {
+        final AsciiString cached = CACHE.get(contentType);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final AsciiString value = AsciiString.cached(contentType + "; charset=UTF-8");
+
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.put(contentType, value);
+        }
+        return value;
+    }
+
+}
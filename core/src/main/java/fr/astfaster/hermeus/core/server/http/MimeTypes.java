@@ -0,0 +1,76 @@
+package fr.astfaster.hermeus.core.server.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+@ApiStatus.Internal
+public class MimeTypes {
+
+    private static final String DEFAULT = "application/octet-stream";
+
+    // The most common types of web assets; the others are probed from the system
+    private static final Map<String, String> TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=UTF-8"),
+            Map.entry("htm", "text/html; charset=UTF-8"),
+            Map.entry("css", "text/css; charset=UTF-8"),
+            Map.entry("js", "text/javascript; charset=UTF-8"),
+            Map.entry("mjs", "text/javascript; charset=UTF-8"),
+            Map.entry("json", "application/json"),
+            Map.entry("txt", "text/plain; charset=UTF-8"),
+            Map.entry("csv", "text/csv; charset=UTF-8"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("avif", "image/avif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("pdf", "application/pdf"),
+            Map.entry("wasm", "application/wasm"),
+            Map.entry("zip", "application/zip"),
+            Map.entry("gz", "application/gzip"),
+            Map.entry("mp4", "video/mp4"),
+            Map.entry("webm", "video/webm"),
+            Map.entry("mp3", "audio/mpeg")
+    );
+
+    private MimeTypes() {}
+
+    /**
+     * Guesses the content type of a file from its name.
+     *
+     * @param file The file
+     * @return A content type; "application/octet-stream" if it is unknown
+     */
+    public static @NotNull String of(@NotNull Path file) {
+        final String name = file.getFileName() == null ? "" : file.getFileName().toString();
+        final int extensionIndex = name.lastIndexOf('.');
+
+        if (extensionIndex != -1) {
+            final String type = TYPES.get(name.substring(extensionIndex + 1).toLowerCase(Locale.ROOT));
+
+            if (type != null) {
+                return type;
+            }
+        }
+
+        try {
+            final String type = Files.probeContentType(file);
+
+            return type != null ? type : DEFAULT;
+        } catch (IOException e) {
+            return DEFAULT;
+        }
+    }
+
+}
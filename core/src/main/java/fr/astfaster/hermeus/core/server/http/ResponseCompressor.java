@@ -0,0 +1,191 @@
+package fr.astfaster.hermeus.core.server.http;
+
+import fr.astfaster.hermeus.api.server.Compression;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.http.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compresses responses with gzip or deflate, depending on the "Accept-Encoding" header of their request.<br>
+ * Each response is compressed with its own {@linkplain Compression settings} (those of its handler) when it was created by {@link #response(HttpResponseStatus, Compression)};
+ * other responses use the settings of the server.
+ */
+@ApiStatus.Internal
+public class ResponseCompressor extends HttpContentEncoder {
+
+    private ChannelHandlerContext ctx;
+
+    private final Compression defaults;
+
+    public ResponseCompressor(Compression defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * Creates a response compressed with given settings
+     *
+     * @param status The status of the response
+     * @param content The content of the response
+     * @param compression The {@link Compression} to use
+     * @return The created {@link FullHttpResponse}
+     */
+    public static @NotNull FullHttpResponse response(@NotNull HttpResponseStatus status, @NotNull ByteBuf content, @NotNull Compression compression) {
+        return new CompressibleFullResponse(status, content, compression);
+    }
+
+    /**
+     * Creates the head of a response (its body is written later) compressed with given settings
+     *
+     * @param status The status of the response
+     * @param compression The {@link Compression} to use
+     * @return The created {@link HttpResponse}
+     */
+    public static @NotNull HttpResponse response(@NotNull HttpResponseStatus status, @NotNull Compression compression) {
+        return new CompressibleResponse(status, compression);
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) {
+        final HttpHeaders headers = response.headers();
+
+        // Already encoded, or a part of a representation which has to be sent as it is
+        if (headers.contains(HttpHeaderNames.CONTENT_ENCODING) || headers.contains(HttpHeaderNames.CONTENT_RANGE)) {
+            return null;
+        }
+
+        final Compression compression = response instanceof Compressible compressible ? compressible.compression() : this.defaults;
+
+        if (!compression.compressible(headers.get(HttpHeaderNames.CONTENT_TYPE))) {
+            return null;
+        }
+
+        // The content depends on the "Accept-Encoding" header, caches must take it into account
+        if (!headers.containsValue(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING, true)) {
+            headers.add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        }
+
+        if (response instanceof FullHttpResponse full && full.content().readableBytes() < compression.threshold()) {
+            return null;
+        }
+
+        final ZlibWrapper wrapper = wrapper(acceptEncoding);
+
+        if (wrapper == null) {
+            return null;
+        }
+
+        return new Result(wrapper == ZlibWrapper.GZIP ? HttpHeaderValues.GZIP.toString() : HttpHeaderValues.DEFLATE.toString(),
+                new EmbeddedChannel(this.ctx.channel().id(), this.ctx.channel().metadata().hasDisconnect(), this.ctx.channel().config(),
+                        ZlibCodecFactory.newZlibEncoder(wrapper, compression.level(), 15, 8)));
+    }
+
+    /**
+     * Checks whether a client prefers gzip-encoded responses
+     *
+     * @param acceptEncoding The "Accept-Encoding" header of the request
+     * @return <code>true</code> if gzip is the encoding preferred by the client
+     */
+    public static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        return acceptEncoding != null && wrapper(acceptEncoding) == ZlibWrapper.GZIP;
+    }
+
+    /**
+     * Picks the encoding preferred by the client between gzip and deflate (gzip wins the ties)
+     *
+     * @param acceptEncoding The "Accept-Encoding" header of the request
+     * @return The {@link ZlibWrapper} of the encoding; or <code>null</code> if the client accepts none of them
+     */
+    private static ZlibWrapper wrapper(String acceptEncoding) {
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+
+        for (String coding : acceptEncoding.split(",")) {
+            final int parameters = coding.indexOf(';');
+            final String name = (parameters == -1 ? coding : coding.substring(0, parameters)).trim();
+            float quality = 1;
+
+            if (parameters != -1) {
+                final String parameter = coding.substring(parameters + 1).trim();
+
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = quality;
+            } else if (name.equalsIgnoreCase("deflate")) {
+                deflate = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+
+        if (gzip == -1) {
+            gzip = any;
+        }
+        if (deflate == -1) {
+            deflate = any;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return ZlibWrapper.GZIP;
+        }
+        return deflate > 0 ? ZlibWrapper.ZLIB : null;
+    }
+
+    private interface Compressible {
+
+        Compression compression();
+
+    }
+
+    private static class CompressibleFullResponse extends DefaultFullHttpResponse implements Compressible {
+
+        private final Compression compression;
+
+        CompressibleFullResponse(HttpResponseStatus status, ByteBuf content, Compression compression) {
+            super(HttpVersion.HTTP_1_1, status, content);
+            this.compression = compression;
+        }
+
+        @Override
+        public Compression compression() {
+            return this.compression;
+        }
+
+    }
+
+    private static class CompressibleResponse extends DefaultHttpResponse implements Compressible {
+
+        private final Compression compression;
+
+        CompressibleResponse(HttpResponseStatus status, Compression compression) {
+            super(HttpVersion.HTTP_1_1, status);
+            this.compression = compression;
+        }
+
+        @Override
+        public Compression compression() {
+            return this.compression;
+        }
+
+    }
+
+}
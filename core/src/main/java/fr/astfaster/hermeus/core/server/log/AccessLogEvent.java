@@ -0,0 +1,28 @@
+package fr.astfaster.hermeus.core.server.log;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.net.SocketAddress;
+
+/**
+ * A slot of the access log ring buffer; slots are allocated once and reused for every entry.
+ */
+@ApiStatus.Internal
+class AccessLogEvent {
+
+    long time;
+    String method;
+    // Null for unknown endpoints
+    String route;
+    int status;
+    long bytes;
+    long latency;
+    SocketAddress remote;
+
+    void clear() {
+        // Don't keep the address of a closed connection reachable until the slot is reused
+        this.route = null;
+        this.remote = null;
+    }
+
+}
@@ -0,0 +1,245 @@
+package fr.astfaster.hermeus.core.server.log;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import fr.astfaster.hermeus.api.server.AccessLog;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Consumes the access log ring buffer: entries are encoded in a reused buffer, which is written to the file at the end of each batch (or once full).<br>
+ * It runs on a single thread, so nothing here is synchronized.
+ */
+@ApiStatus.Internal
+class AccessLogWriter implements EventHandler<AccessLogEvent>, LifecycleAware {
+
+    private static final Logger LOGGER = LogManager.getLogger(AccessLogWriter.class);
+
+    // Longer methods and routes are truncated, so that an entry always fits in MAX_ENTRY bytes (6 bytes per escaped char, at worst)
+    private static final int MAX_METHOD = 64;
+    private static final int MAX_ROUTE = 1024;
+    private static final int MAX_ENTRY = 8192;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final byte[] digits = new byte[20];
+
+    private final FileChannel channel;
+    private final AccessLog.Format format;
+
+    // The remote address of the previous entry: keep-alive connections log the same one many times, so it is encoded once
+    private SocketAddress remote;
+    private byte[] remoteText = NULL;
+    private byte[] remoteAddress = EMPTY;
+    private int remotePort;
+
+    private boolean failing;
+
+    AccessLogWriter(FileChannel channel, AccessLog.Format format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    @Override
+    public void onEvent(AccessLogEvent event, long sequence, boolean endOfBatch) {
+        if (this.buffer.remaining() < MAX_ENTRY) {
+            this.flush();
+        }
+
+        this.remote(event.remote);
+
+        if (this.format == AccessLog.Format.JSON_LINES) {
+            this.json(event);
+        } else {
+            this.binary(event);
+        }
+
+        event.clear();
+
+        if (endOfBatch) {
+            this.flush();
+        }
+    }
+
+    private void json(AccessLogEvent event) {
+        final ByteBuffer buffer = this.buffer;
+
+        ascii(buffer, "{\"time\":");
+        this.decimal(event.time);
+        ascii(buffer, ",\"method\":\"");
+        utf8(buffer, event.method, MAX_METHOD, true);
+        ascii(buffer, "\",\"route\":");
+
+        if (event.route != null) {
+            buffer.put((byte) '"');
+            utf8(buffer, event.route, MAX_ROUTE, true);
+            buffer.put((byte) '"');
+        } else {
+            buffer.put(NULL);
+        }
+
+        ascii(buffer, ",\"status\":");
+        this.decimal(event.status);
+        ascii(buffer, ",\"bytes\":");
+        this.decimal(event.bytes);
+        ascii(buffer, ",\"latency_ns\":");
+        this.decimal(event.latency);
+        ascii(buffer, ",\"remote\":");
+        buffer.put(this.remoteText);
+        ascii(buffer, "}\n");
+    }
+
+    private void binary(AccessLogEvent event) {
+        final ByteBuffer buffer = this.buffer;
+        final int start = buffer.position();
+
+        buffer.putShort((short) 0)
+                .putLong(event.time)
+                .putLong(event.latency)
+                .putLong(event.bytes)
+                .putShort((short) event.status);
+
+        // Its length is a single byte
+        final int methodLength = Math.min(event.method.length(), MAX_METHOD);
+
+        buffer.put((byte) methodLength);
+
+        for (int i = 0; i < methodLength; i++) {
+            buffer.put((byte) event.method.charAt(i));
+        }
+
+        final int routeLength = buffer.position();
+
+        buffer.putShort((short) 0);
+
+        if (event.route != null) {
+            utf8(buffer, event.route, MAX_ROUTE, false);
+            buffer.putShort(routeLength, (short) (buffer.position() - routeLength - 2));
+        }
+
+        buffer.put((byte) this.remoteAddress.length)
+                .put(this.remoteAddress)
+                .putShort((short) this.remotePort);
+
+        buffer.putShort(start, (short) (buffer.position() - start));
+    }
+
+    private void remote(SocketAddress remote) {
+        if (remote == this.remote) {
+            return;
+        }
+
+        this.remote = remote;
+
+        if (remote instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            final byte[] address = inet.getAddress().getAddress();
+            final String host = inet.getAddress().getHostAddress();
+
+            this.remoteAddress = address;
+            this.remotePort = inet.getPort();
+            this.remoteText = ("\"" + (address.length == 16 ? "[" + host + "]" : host) + ":" + inet.getPort() + "\"").getBytes(StandardCharsets.US_ASCII);
+        } else {
+            this.remoteAddress = EMPTY;
+            this.remotePort = 0;
+            this.remoteText = remote != null ? ("\"" + remote + "\"").getBytes(StandardCharsets.UTF_8) : NULL;
+        }
+    }
+
+    private void decimal(long value) {
+        if (value < 0) {
+            this.buffer.put((byte) '-');
+            value = -value;
+        }
+
+        int i = this.digits.length;
+
+        do {
+            this.digits[--i] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        this.buffer.put(this.digits, i, this.digits.length - i);
+    }
+
+    private static void ascii(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private static void utf8(ByteBuffer buffer, String value, int max, boolean json) {
+        final int length = Math.min(value.length(), max);
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (json && (c == '"' || c == '\\')) {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (json && c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0').put(HEX[c >> 4]).put(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+                buffer.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private void flush() {
+        this.buffer.flip();
+
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+
+            this.failing = false;
+        } catch (IOException e) {
+            // Logged once until writing works again; the entries of the batch are lost
+            if (!this.failing) {
+                LOGGER.error("Couldn't write the access log", e);
+
+                this.failing = true;
+            }
+        } finally {
+            this.buffer.clear();
+        }
+    }
+
+    @Override
+    public void onStart() {}
+
+    @Override
+    public void onShutdown() {
+        this.flush();
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            LOGGER.error("Couldn't close the access log", e);
+        }
+    }
+
+}
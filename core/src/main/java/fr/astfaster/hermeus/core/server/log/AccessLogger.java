@@ -0,0 +1,160 @@
+package fr.astfaster.hermeus.core.server.log;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.LiteTimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import fr.astfaster.hermeus.api.HermeusException;
+import fr.astfaster.hermeus.api.server.AccessLog;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The access log of a server: responses publish their entry in a preallocated ring buffer, consumed by a dedicated writer thread.<br>
+ * Publishing never blocks nor allocates; entries are dropped when the ring buffer is full.
+ */
+@ApiStatus.Internal
+public class AccessLogger {
+
+    private static final Logger LOGGER = LogManager.getLogger(AccessLogger.class);
+
+    private final RingBuffer<AccessLogEvent> ringBuffer;
+    private final BatchEventProcessor<AccessLogEvent> processor;
+    private final Thread thread;
+    private final int sampling;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Opens the access log file and starts its writer thread.
+     *
+     * @param settings The {@link AccessLog} settings
+     * @param name The name of the server, for the writer thread
+     * @throws HermeusException If the file can't be opened
+     */
+    public AccessLogger(@NotNull AccessLog settings, @NotNull String name) {
+        final FileChannel channel;
+
+        try {
+            channel = FileChannel.open(settings.file(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new HermeusException("Couldn't open the access log " + settings.file(), e);
+        }
+
+        // The writer is only woken up when it waits for entries, so publishing doesn't take a lock
+        this.ringBuffer = RingBuffer.createMultiProducer(AccessLogEvent::new, settings.bufferSize(), new LiteTimeoutBlockingWaitStrategy(100, TimeUnit.MILLISECONDS));
+        this.processor = new BatchEventProcessor<>(this.ringBuffer, this.ringBuffer.newBarrier(), new AccessLogWriter(channel, settings.format()));
+        this.processor.setExceptionHandler(new LoggingExceptionHandler());
+        this.ringBuffer.addGatingSequences(this.processor.getSequence());
+        this.sampling = settings.sampling();
+
+        this.thread = new Thread(this.processor, "Hermeus Access Log (" + name + ")");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Logs a response, unless it isn't sampled or the ring buffer is full.
+     *
+     * @param method The method of the request
+     * @param route The route of the handler (e.g. "/users/:id"); or <code>null</code> for unknown endpoints
+     * @param status The status of the response; 0 if none was sent
+     * @param bytes The size of the response body
+     * @param latency The time taken to respond, in nanoseconds
+     * @param remote The address of the client
+     */
+    public void log(@NotNull String method, @Nullable String route, int status, long bytes, long latency, @Nullable SocketAddress remote) {
+        if (this.sampling > 1 && status < 500 && ThreadLocalRandom.current().nextInt(this.sampling) != 0) {
+            return;
+        }
+
+        final long sequence;
+
+        try {
+            sequence = this.ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            this.dropped.increment();
+            return;
+        }
+
+        try {
+            final AccessLogEvent event = this.ringBuffer.get(sequence);
+
+            event.time = System.currentTimeMillis();
+            event.method = method;
+            event.route = route;
+            event.status = status;
+            event.bytes = bytes;
+            event.latency = latency;
+            event.remote = remote;
+        } finally {
+            this.ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Returns the number of entries dropped because the ring buffer was full.
+     *
+     * @return A number of entries
+     */
+    public long dropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Writes the remaining entries (waiting at most one second for them), then stops the writer thread and closes the file.
+     */
+    public void close() {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+        while (this.processor.getSequence().get() < this.ringBuffer.getCursor() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        this.processor.halt();
+
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final long dropped = this.dropped();
+
+        if (dropped > 0) {
+            LOGGER.warn("{} access log entries were dropped because the ring buffer was full", dropped);
+        }
+    }
+
+    private static class LoggingExceptionHandler implements ExceptionHandler<AccessLogEvent> {
+
+        @Override
+        public void handleEventException(Throwable cause, long sequence, AccessLogEvent event) {
+            LOGGER.error("Couldn't write an access log entry", cause);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable cause) {
+            LOGGER.error("Couldn't start the access log", cause);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable cause) {
+            LOGGER.error("Couldn't stop the access log", cause);
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package fr.astfaster.hermeus.core.server.metrics;
+
+import fr.astfaster.hermeus.api.server.metrics.ConnectionMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the connections of a server and their traffic.<br>
+ * It is the first handler of the connections' pipelines, so it sees the bytes as they are read from and written to the sockets.
+ */
+@ChannelHandler.Sharable
+@ApiStatus.Internal
+public class ConnectionStats extends ChannelDuplexHandler {
+
+    // Closed channels are removed automatically
+    private final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder writabilityLost = new LongAdder();
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        this.accepted.increment();
+        this.channels.add(ctx.channel());
+
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf buf) {
+            this.bytesReceived.add(buf.readableBytes());
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        final long size = size(msg);
+
+        if (size > 0) {
+            this.bytesSent.add(size);
+        }
+
+        super.write(ctx, msg, promise);
+    }
+
+    private static long size(Object msg) {
+        if (msg instanceof ByteBuf buf) {
+            return buf.readableBytes();
+        } else if (msg instanceof ByteBufHolder holder) {
+            return holder.content().readableBytes();
+        } else if (msg instanceof FileRegion region) {
+            return region.count() - region.transferred();
+        }
+        return 0;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (!ctx.channel().isWritable()) {
+            this.writabilityLost.increment();
+        }
+
+        super.channelWritabilityChanged(ctx);
+    }
+
+    public @NotNull ConnectionMetrics snapshot() {
+        long open = 0;
+        long pendingOutboundBytes = 0;
+        long unwritable = 0;
+
+        for (Channel channel : this.channels) {
+            final ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+
+            open++;
+
+            if (buffer != null) {
+                pendingOutboundBytes += buffer.totalPendingWriteBytes();
+            }
+
+            if (!channel.isWritable()) {
+                unwritable++;
+            }
+        }
+
+        return new ConnectionMetrics(open, this.accepted.sum(), this.bytesReceived.sum(), this.bytesSent.sum(), pendingOutboundBytes, unwritable, this.writabilityLost.sum());
+    }
+
+}
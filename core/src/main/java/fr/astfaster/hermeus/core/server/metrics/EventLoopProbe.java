@@ -0,0 +1,64 @@
+package fr.astfaster.hermeus.core.server.metrics;
+
+import fr.astfaster.hermeus.api.server.metrics.EventLoopMetrics;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lag of an event loop: a task is scheduled on it every second, and the delay with which it runs is recorded.<br>
+ * A loop busy with I/O or long tasks runs it late.
+ */
+@ApiStatus.Internal
+public class EventLoopProbe implements Runnable {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final EventExecutor loop;
+    private final String group;
+    private final int index;
+
+    private long expected;
+    private volatile long lag;
+    private volatile boolean stopped;
+
+    EventLoopProbe(EventExecutor loop, String group, int index) {
+        this.loop = loop;
+        this.group = group;
+        this.index = index;
+    }
+
+    void start() {
+        this.expected = System.nanoTime() + INTERVAL;
+        this.loop.schedule(this, INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    void stop() {
+        this.stopped = true;
+    }
+
+    @Override
+    public void run() {
+        if (this.stopped || this.loop.isShuttingDown()) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+
+        this.lag = Math.max(0, now - this.expected);
+
+        // Rescheduled from now rather than at a fixed rate: a late loop would otherwise run the missed probes in a row, hiding its lag
+        this.expected = now + INTERVAL;
+        this.loop.schedule(this, INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    public @NotNull EventLoopMetrics snapshot() {
+        final int pendingTasks = this.loop instanceof SingleThreadEventExecutor executor ? executor.pendingTasks() : -1;
+
+        return new EventLoopMetrics(this.group, this.index, pendingTasks, this.lag);
+    }
+
+}
@@ -0,0 +1,80 @@
+package fr.astfaster.hermeus.core.server.metrics;
+
+import fr.astfaster.hermeus.api.server.metrics.RouteMetrics;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the requests of a route: their number, the classes of their response statuses, how many are in flight, and their latencies.
+ */
+@ApiStatus.Internal
+public class HandlerMetrics {
+
+    private final String method;
+    private final String route;
+    // 1xx to 5xx; other statuses are counted as 5xx
+    private final LongAdder[] statuses = new LongAdder[5];
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    HandlerMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+
+        for (int i = 0; i < this.statuses.length; i++) {
+            this.statuses[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the start of a request.
+     *
+     * @return The start time, to give to {@link #end(long, int)}
+     */
+    public long start() {
+        this.inFlight.increment();
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the response of a request.
+     *
+     * @param start The start time of the request
+     * @param status The status code of the response
+     */
+    public void end(long start, int status) {
+        this.latency.record(System.nanoTime() - start);
+        this.statuses[status >= 100 && status < 500 ? status / 100 - 1 : 4].increment();
+        this.inFlight.decrement();
+    }
+
+    /**
+     * Records the end of a request without response (e.g. its connection was closed).
+     */
+    public void cancel() {
+        this.inFlight.decrement();
+    }
+
+    public @NotNull String method() {
+        return this.method;
+    }
+
+    public @NotNull String route() {
+        return this.route;
+    }
+
+    public @NotNull RouteMetrics snapshot() {
+        final long informational = this.statuses[0].sum();
+        final long successful = this.statuses[1].sum();
+        final long redirection = this.statuses[2].sum();
+        final long clientErrors = this.statuses[3].sum();
+        final long serverErrors = this.statuses[4].sum();
+
+        return new RouteMetrics(this.method, this.route, informational + successful + redirection + clientErrors + serverErrors,
+                informational, successful, redirection, clientErrors, serverErrors, this.inFlight.sum(), this.latency.snapshot());
+    }
+
+}
@@ -0,0 +1,147 @@
+package fr.astfaster.hermeus.core.server.metrics;
+
+import fr.astfaster.hermeus.api.server.metrics.LatencySnapshot;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies (in nanoseconds), with log-linear buckets like HdrHistogram: each power of two is split in 32 buckets, so values are known within about 3%.<br>
+ * Recording a value is a few atomic increments on a stripe of counters chosen by the thread, so event loops don't contend on the same cache lines.
+ */
+@ApiStatus.Internal
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values of 2^36 ns (about 68 seconds) and more are counted in the last bucket
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final int STRIPES = Math.min(Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1, 16);
+
+    // Allocated on first use, as most routes are only hit by a few threads
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds
+     */
+    @SuppressWarnings("deprecation")
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray counts = this.stripes.get(stripe);
+
+        if (counts == null) {
+            this.stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+            counts = this.stripes.get(stripe);
+        }
+
+        counts.incrementAndGet(index(nanos));
+        this.sum.add(nanos);
+
+        long current;
+
+        while (nanos < (current = this.min.get()) && !this.min.compareAndSet(current, nanos)) {
+            Thread.onSpinWait();
+        }
+
+        while (nanos > (current = this.max.get()) && !this.max.compareAndSet(current, nanos)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the highest value counted in a bucket.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Takes a snapshot of the histogram. Values recorded meanwhile may be partially included.
+     *
+     * @return A {@link LatencySnapshot}
+     */
+    public @NotNull LatencySnapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final AtomicLongArray stripeCounts = this.stripes.get(stripe);
+
+            if (stripeCounts == null) {
+                continue;
+            }
+
+            for (int i = 0; i < BUCKETS; i++) {
+                final long bucketCount = stripeCounts.get(i);
+
+                counts[i] += bucketCount;
+                count += bucketCount;
+            }
+        }
+
+        if (count == 0) {
+            return new LatencySnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        final long max = this.max.get();
+
+        return new LatencySnapshot(count, this.min.get(), max, (double) this.sum.sum() / count,
+                percentile(counts, count, 0.5, max),
+                percentile(counts, count, 0.9, max),
+                percentile(counts, count, 0.99, max),
+                percentile(counts, count, 0.999, max));
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long max) {
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+}
@@ -0,0 +1,244 @@
+package fr.astfaster.hermeus.core.server.metrics;
+
+import fr.astfaster.hermeus.api.memory.AllocatorMetrics;
+import fr.astfaster.hermeus.api.server.metrics.ConnectionMetrics;
+import fr.astfaster.hermeus.api.server.metrics.EventLoopMetrics;
+import fr.astfaster.hermeus.api.server.metrics.HermeusMetrics;
+import fr.astfaster.hermeus.api.server.metrics.LatencySnapshot;
+import fr.astfaster.hermeus.api.server.metrics.RouteMetrics;
+import fr.astfaster.hermeus.core.netty.NettyAllocator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@ApiStatus.Internal
+public class ServerMetrics implements HermeusMetrics {
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    // By method and route: a handler registered again on the same route keeps its metrics
+    private final Map<String, HandlerMetrics> handlers = new ConcurrentHashMap<>();
+    private final LongAdder unmatchedRequests = new LongAdder();
+    private final ConnectionStats connectionStats = new ConnectionStats();
+    private volatile List<EventLoopProbe> eventLoopProbes = List.of();
+
+    /**
+     * Starts probing the event loops of the server.
+     *
+     * @param boss The group accepting the connections
+     * @param worker The group handling the connections
+     */
+    public void start(@NotNull EventLoopGroup boss, @NotNull EventLoopGroup worker) {
+        final List<EventLoopProbe> probes = new ArrayList<>();
+
+        addProbes(probes, boss, "boss");
+        addProbes(probes, worker, "worker");
+
+        for (EventLoopProbe probe : probes) {
+            probe.start();
+        }
+
+        this.eventLoopProbes = probes;
+    }
+
+    private static void addProbes(List<EventLoopProbe> probes, EventLoopGroup group, String name) {
+        int index = 0;
+
+        for (EventExecutor loop : group) {
+            probes.add(new EventLoopProbe(loop, name, index++));
+        }
+    }
+
+    /**
+     * Stops probing the event loops of the server, e.g. because they are shared and will outlive it.
+     */
+    public void stop() {
+        for (EventLoopProbe probe : this.eventLoopProbes) {
+            probe.stop();
+        }
+
+        this.eventLoopProbes = List.of();
+    }
+
+    public @NotNull ConnectionStats connectionStats() {
+        return this.connectionStats;
+    }
+
+    /**
+     * Returns the metrics of a route, creating them on its first request.
+     *
+     * @param method The HTTP method of the route
+     * @param route The full path of the route
+     * @return The {@link HandlerMetrics} of the route
+     */
+    public @NotNull HandlerMetrics handler(@NotNull String method, @NotNull String route) {
+        return this.handlers.computeIfAbsent(method + ' ' + route, key -> new HandlerMetrics(method, route));
+    }
+
+    public void unmatched() {
+        this.unmatchedRequests.increment();
+    }
+
+    @Override
+    public @NotNull List<RouteMetrics> routes() {
+        final List<RouteMetrics> routes = new ArrayList<>(this.handlers.size());
+
+        for (HandlerMetrics handler : this.handlers.values()) {
+            routes.add(handler.snapshot());
+        }
+
+        routes.sort(Comparator.comparing(RouteMetrics::route).thenComparing(RouteMetrics::method));
+
+        return routes;
+    }
+
+    @Override
+    public long unmatchedRequests() {
+        return this.unmatchedRequests.sum();
+    }
+
+    @Override
+    public @NotNull ConnectionMetrics connections() {
+        return this.connectionStats.snapshot();
+    }
+
+    @Override
+    public @NotNull List<EventLoopMetrics> eventLoops() {
+        final List<EventLoopProbe> probes = this.eventLoopProbes;
+        final List<EventLoopMetrics> eventLoops = new ArrayList<>(probes.size());
+
+        for (EventLoopProbe probe : probes) {
+            eventLoops.add(probe.snapshot());
+        }
+        return eventLoops;
+    }
+
+    @Override
+    public @NotNull String prometheus() {
+        final List<RouteMetrics> routes = this.routes();
+        final StringBuilder builder = new StringBuilder(256 + routes.size() * 1024);
+
+        builder.append("# HELP hermeus_requests_total Answered requests, by route and status class.\n")
+                .append("# TYPE hermeus_requests_total counter\n");
+
+        for (RouteMetrics route : routes) {
+            final long[] statuses = {route.informational(), route.successful(), route.redirection(), route.clientErrors(), route.serverErrors()};
+
+            for (int i = 0; i < statuses.length; i++) {
+                sample(builder, "hermeus_requests_total", route, "status", STATUS_CLASSES[i]).append(statuses[i]).append('\n');
+            }
+        }
+
+        builder.append("# HELP hermeus_requests_in_flight Requests waiting for their response, by route.\n")
+                .append("# TYPE hermeus_requests_in_flight gauge\n");
+
+        for (RouteMetrics route : routes) {
+            sample(builder, "hermeus_requests_in_flight", route, null, null).append(route.inFlight()).append('\n');
+        }
+
+        builder.append("# HELP hermeus_request_duration_seconds Time until the response starts being sent, by route.\n")
+                .append("# TYPE hermeus_request_duration_seconds summary\n");
+
+        for (RouteMetrics route : routes) {
+            final LatencySnapshot latency = route.latency();
+
+            sample(builder, "hermeus_request_duration_seconds", route, "quantile", "0.5").append(seconds(latency.p50())).append('\n');
+            sample(builder, "hermeus_request_duration_seconds", route, "quantile", "0.9").append(seconds(latency.p90())).append('\n');
+            sample(builder, "hermeus_request_duration_seconds", route, "quantile", "0.99").append(seconds(latency.p99())).append('\n');
+            sample(builder, "hermeus_request_duration_seconds", route, "quantile", "0.999").append(seconds(latency.p999())).append('\n');
+            sample(builder, "hermeus_request_duration_seconds_sum", route, null, null).append(latency.mean() * latency.count() / 1e9).append('\n');
+            sample(builder, "hermeus_request_duration_seconds_count", route, null, null).append(latency.count()).append('\n');
+        }
+
+        builder.append("# HELP hermeus_unmatched_requests_total Requests matching no route.\n")
+                .append("# TYPE hermeus_unmatched_requests_total counter\n")
+                .append("hermeus_unmatched_requests_total ").append(this.unmatchedRequests()).append('\n');
+
+        final ConnectionMetrics connections = this.connections();
+
+        metric(builder, "hermeus_connections_open", "gauge", "Open connections.", connections.open());
+        metric(builder, "hermeus_connections_accepted_total", "counter", "Accepted connections.", connections.accepted());
+        metric(builder, "hermeus_received_bytes_total", "counter", "Bytes received from the sockets.", connections.bytesReceived());
+        metric(builder, "hermeus_sent_bytes_total", "counter", "Bytes written to the sockets.", connections.bytesSent());
+        metric(builder, "hermeus_pending_outbound_bytes", "gauge", "Bytes waiting to be written to the sockets.", connections.pendingOutboundBytes());
+        metric(builder, "hermeus_connections_unwritable", "gauge", "Connections with too many pending bytes to be writable.", connections.unwritable());
+        metric(builder, "hermeus_writability_lost_total", "counter", "Times a connection stopped being writable.", connections.writabilityLost());
+
+        final List<EventLoopMetrics> eventLoops = this.eventLoops();
+
+        builder.append("# HELP hermeus_event_loop_pending_tasks Tasks waiting to be run by an event loop.\n")
+                .append("# TYPE hermeus_event_loop_pending_tasks gauge\n");
+
+        for (EventLoopMetrics eventLoop : eventLoops) {
+            builder.append("hermeus_event_loop_pending_tasks{group=\"").append(eventLoop.group()).append("\",loop=\"").append(eventLoop.index()).append("\"} ").append(eventLoop.pendingTasks()).append('\n');
+        }
+
+        builder.append("# HELP hermeus_event_loop_lag_seconds Delay of the last probe task run by an event loop.\n")
+                .append("# TYPE hermeus_event_loop_lag_seconds gauge\n");
+
+        for (EventLoopMetrics eventLoop : eventLoops) {
+            builder.append("hermeus_event_loop_lag_seconds{group=\"").append(eventLoop.group()).append("\",loop=\"").append(eventLoop.index()).append("\"} ").append(seconds(eventLoop.lag())).append('\n');
+        }
+
+        // The allocator is shared by all the servers of the process; only its cheap gauges are read, as the endpoint is scraped often
+        final AllocatorMetrics allocator = NettyAllocator.gauges();
+
+        metric(builder, "hermeus_allocator_used_direct_bytes", "gauge", "Direct memory reserved by the buffer allocator.", allocator.usedDirectMemory());
+        metric(builder, "hermeus_allocator_used_heap_bytes", "gauge", "Heap memory reserved by the buffer allocator.", allocator.usedHeapMemory());
+        metric(builder, "hermeus_max_direct_bytes", "gauge", "Maximum direct memory of the process.", allocator.maxDirectMemory());
+
+        if (allocator.processDirectMemory() >= 0) {
+            metric(builder, "hermeus_process_direct_bytes", "gauge", "Direct memory used by Netty in the process.", allocator.processDirectMemory());
+        }
+
+        metric(builder, "hermeus_allocator_thread_caches", "gauge", "Thread caches of the buffer allocator.", allocator.threadLocalCaches());
+
+        return builder.toString();
+    }
+
+    private static void metric(StringBuilder builder, String name, String type, String help, long value) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n')
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static StringBuilder sample(StringBuilder builder, String name, RouteMetrics route, String label, String value) {
+        builder.append(name).append("{method=\"").append(route.method()).append("\",route=\"");
+
+        escape(builder, route.route());
+
+        builder.append('"');
+
+        if (label != null) {
+            builder.append(',').append(label).append("=\"").append(value).append('"');
+        }
+
+        return builder.append("} ");
+    }
+
+    private static void escape(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '"' -> builder.append("\\\"");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(c);
+            }
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+}
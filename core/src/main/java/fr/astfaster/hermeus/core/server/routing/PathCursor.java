@@ -0,0 +1,96 @@
+package fr.astfaster.hermeus.core.server.routing;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view over the path part of a raw request URI.<br>
+ * Routers consume it segment by segment (e.g. "/v1/users/12" -> "/users/12" -> ...) by moving an offset,
+ * so dispatching a request through nested routers doesn't create any intermediate string or array.
+ * A cursor is not thread-safe, but can be {@linkplain #reset(String) reused} for the next request of a thread.
+ */
+@ApiStatus.Internal
+public class PathCursor {
+
+    private String uri;
+    private int end;
+    private int position;
+
+    /**
+     * Creates a cursor over the path of a URI; the query string and the trailing slash are excluded.
+     *
+     * @param uri The raw URI of a request (e.g. "/v1/users/?page=2")
+     * @return The created {@link PathCursor}
+     */
+    public static @NotNull PathCursor of(@NotNull String uri) {
+        return new PathCursor().reset(uri);
+    }
+
+    /**
+     * Moves the cursor to the start of the path of another URI, so that a cursor can be reused from a request to another (e.g. one cursor per event loop).
+     *
+     * @param uri The raw URI of a request (e.g. "/v1/users/?page=2")
+     * @return This {@link PathCursor} instance
+     */
+    public @NotNull PathCursor reset(@NotNull String uri) {
+        int end = uri.indexOf('?');
+
+        if (end == -1) {
+            end = uri.length();
+        }
+
+        if (end > 0 && uri.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        this.uri = uri;
+        this.position = 0;
+        this.end = end;
+
+        return this;
+    }
+
+    /**
+     * Checks whether there is a remaining segment in the path.
+     *
+     * @return <code>true</code> if a segment remains
+     */
+    public boolean hasSegment() {
+        return this.position < this.end;
+    }
+
+    /**
+     * Returns the end of the current segment.<br>
+     * The current segment is the region between {@link #position()} (its leading slash) and the returned index.
+     *
+     * @return An index in the {@linkplain #uri() URI}
+     */
+    public int segmentEnd() {
+        return RouteTree.segmentEnd(this.uri, this.position + 1, this.end);
+    }
+
+    /**
+     * Moves the cursor to the next segment.
+     */
+    public void advance() {
+        this.position = this.segmentEnd();
+    }
+
+    public @NotNull String uri() {
+        return this.uri;
+    }
+
+    public int position() {
+        return this.position;
+    }
+
+    public int end() {
+        return this.end;
+    }
+
+    @Override
+    public String toString() {
+        return this.uri.substring(this.position, this.end);
+    }
+
+}
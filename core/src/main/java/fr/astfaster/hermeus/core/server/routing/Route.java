@@ -0,0 +1,110 @@
+package fr.astfaster.hermeus.core.server.routing;
+
+import fr.astfaster.hermeus.api.server.http.HttpParameter;
+import fr.astfaster.hermeus.core.server.http.HttpParameterImpl;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A route compiled in a {@link RouteTree}.<br>
+ * It knows which segments of its template are parameters, so their values are only extracted once a request matched.
+ *
+ * @param <T> The type of the value bound to the route
+ */
+@ApiStatus.Internal
+public class Route<T> {
+
+    private final String template;
+    private final T value;
+    private final String[] parameterNames;
+    private final boolean wildcard;
+    private final boolean dynamic;
+
+    Route(String template, T value, int segments) {
+        this.template = template;
+        this.value = value;
+        this.parameterNames = new String[segments];
+
+        boolean wildcard = false;
+        boolean dynamic = false;
+        int position = 0;
+
+        for (int i = 0; i < segments; i++) {
+            final int start = position + 1;
+            final int end = RouteTree.segmentEnd(template, start, template.length());
+
+            if (start < end && (template.charAt(start) == ':' || template.charAt(start) == '*')) {
+                wildcard = template.charAt(start) == '*';
+                dynamic = true;
+
+                // An anonymous wildcard ("*") doesn't produce a parameter
+                if (end > start + 1) {
+                    this.parameterNames[i] = template.substring(start + 1, end);
+                }
+            }
+
+            position = end;
+        }
+
+        this.wildcard = wildcard;
+        this.dynamic = dynamic;
+    }
+
+    public @NotNull String template() {
+        return this.template;
+    }
+
+    public @NotNull T value() {
+        return this.value;
+    }
+
+    /**
+     * Checks whether the route has parameters (":param" or "*wildcard").
+     *
+     * @return <code>true</code> if the route has parameters
+     */
+    public boolean dynamic() {
+        return this.dynamic;
+    }
+
+    /**
+     * Extracts the parameters of this route from a matched path region.
+     *
+     * @param path The matched path
+     * @param start The start of the region (inclusive)
+     * @param end The end of the region (exclusive)
+     * @return The list of extracted {@linkplain HttpParameter parameters}
+     */
+    public @NotNull List<HttpParameter> parameters(@NotNull String path, int start, int end) {
+        if (!this.dynamic) {
+            return List.of();
+        }
+
+        final List<HttpParameter> parameters = new ArrayList<>(this.parameterNames.length);
+        final int last = this.parameterNames.length - 1;
+        int position = start;
+        int segment = 0;
+
+        for (; segment <= last && position < end; segment++) {
+            final int segmentStart = position + 1;
+            final int segmentEnd = this.wildcard && segment == last ? end : RouteTree.segmentEnd(path, segmentStart, end);
+            final String name = this.parameterNames[segment];
+
+            if (name != null) {
+                parameters.add(new HttpParameterImpl(name, List.of(path.substring(segmentStart, segmentEnd))));
+            }
+
+            position = segmentEnd;
+        }
+
+        // A wildcard also matches an empty remainder
+        if (this.wildcard && segment == last && this.parameterNames[last] != null) {
+            parameters.add(new HttpParameterImpl(this.parameterNames[last], List.of("")));
+        }
+        return parameters;
+    }
+
+}
@@ -0,0 +1,146 @@
+package fr.astfaster.hermeus.core.server.routing;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A segment trie compiled from route templates (e.g. "/users/:id/files/*path").<br>
+ * Matching walks the request path once, comparing each segment in place, so no intermediate string or array is created.<br><br>
+ *
+ * Precedence on every segment: static segment, then ":param", then "*wildcard" (which swallows the rest of the path).
+ * A more specific branch that fails deeper falls back to the next candidate.
+ *
+ * @param <T> The type of the value bound to a route
+ */
+@ApiStatus.Internal
+public class RouteTree<T> {
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Inserts a route template in the tree.<br>
+     * The template is either empty (root) or a sequence of "/segment" without a trailing slash.
+     *
+     * @param template The route template
+     * @param value The value bound to the template
+     */
+    public void insert(@NotNull String template, @NotNull T value) {
+        Node<T> node = this.root;
+        int position = 0;
+        int segments = 0;
+
+        while (position < template.length()) {
+            if (template.charAt(position) != '/') {
+                throw new IllegalArgumentException("Invalid route template: " + template);
+            }
+
+            final int start = position + 1;
+            final int end = segmentEnd(template, start, template.length());
+            final char first = start < end ? template.charAt(start) : 0;
+
+            if (first == '*') {
+                if (end != template.length()) {
+                    throw new IllegalArgumentException("A wildcard must be the last segment of a route: " + template);
+                }
+
+                if (node.wildcard == null) {
+                    node.wildcard = new Node<>();
+                }
+
+                node = node.wildcard;
+            } else if (first == ':') {
+                if (node.parameter == null) {
+                    node.parameter = new Node<>();
+                }
+
+                node = node.parameter;
+            } else {
+                node = node.staticChild(template.substring(start, end));
+            }
+
+            position = end;
+            segments++;
+        }
+
+        node.route = new Route<>(template, value, segments);
+    }
+
+    /**
+     * Finds the route matching a region of a path.
+     *
+     * @param path The path to match
+     * @param start The start of the region (inclusive)
+     * @param end The end of the region (exclusive)
+     * @return The matching {@link Route}; or <code>null</code> if no route matches
+     */
+    public @Nullable Route<T> match(@NotNull String path, int start, int end) {
+        return match(this.root, path, start, end);
+    }
+
+    private static <T> Route<T> match(Node<T> node, String path, int position, int end) {
+        if (position == end) {
+            if (node.route != null) {
+                return node.route;
+            }
+            return node.wildcard != null ? node.wildcard.route : null;
+        }
+
+        if (path.charAt(position) != '/') {
+            return null;
+        }
+
+        final int start = position + 1;
+        final int segmentEnd = segmentEnd(path, start, end);
+        final Node<T> child = node.children.get(path, start, segmentEnd);
+
+        if (child != null) {
+            final Route<T> route = match(child, path, segmentEnd, end);
+
+            if (route != null) {
+                return route;
+            }
+        }
+
+        if (node.parameter != null && segmentEnd > start) {
+            final Route<T> route = match(node.parameter, path, segmentEnd, end);
+
+            if (route != null) {
+                return route;
+            }
+        }
+
+        return node.wildcard != null ? node.wildcard.route : null;
+    }
+
+    static int segmentEnd(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (path.charAt(i) == '/') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static class Node<T> {
+
+        private final SegmentMap<Node<T>> children = new SegmentMap<>();
+
+        private Node<T> parameter;
+        private Node<T> wildcard;
+        private Route<T> route;
+
+        private Node<T> staticChild(String key) {
+            Node<T> child = this.children.get(key, 0, key.length());
+
+            if (child == null) {
+                child = new Node<>();
+
+                this.children.put(key, child);
+            }
+            return child;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package fr.astfaster.hermeus.core.server.routing;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An open-addressed map whose keys can be looked up with a region of a {@link String}.<br>
+ * It is used to find path segments without extracting them with {@link String#substring(int, int)}.
+ *
+ * @param <V> The type of the values
+ */
+@ApiStatus.Internal
+public class SegmentMap<V> {
+
+    private String[] keys = new String[0];
+    private Object[] values = new Object[0];
+    private int size;
+
+    /**
+     * Associates a value to a key, replacing the previous one if any.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(@NotNull String key, @NotNull V value) {
+        final int index = this.indexOf(key, 0, key.length());
+
+        if (index != -1) {
+            this.values[index] = value;
+            return;
+        }
+
+        if ((this.size + 1) * 2 > this.keys.length) {
+            this.resize(Math.max(4, this.keys.length * 2));
+        }
+
+        this.insert(key, value);
+        this.size++;
+    }
+
+    /**
+     * Returns the value associated to a region of a string.
+     *
+     * @param path The string containing the key
+     * @param start The start of the key (inclusive)
+     * @param end The end of the key (exclusive)
+     * @return The found value; or <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(@NotNull String path, int start, int end) {
+        final int index = this.indexOf(path, start, end);
+
+        return index == -1 ? null : (V) this.values[index];
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private int indexOf(String path, int start, int end) {
+        if (this.size == 0) {
+            return -1;
+        }
+
+        final int mask = this.keys.length - 1;
+        final int length = end - start;
+
+        for (int i = hash(path, start, end) & mask; ; i = (i + 1) & mask) {
+            final String key = this.keys[i];
+
+            if (key == null) {
+                return -1;
+            }
+
+            if (key.length() == length && key.regionMatches(0, path, start, length)) {
+                return i;
+            }
+        }
+    }
+
+    private void insert(String key, Object value) {
+        final int mask = this.keys.length - 1;
+        int i = hash(key, 0, key.length()) & mask;
+
+        while (this.keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+    }
+
+    private void resize(int capacity) {
+        final String[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                this.insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(String value, int start, int end) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+}
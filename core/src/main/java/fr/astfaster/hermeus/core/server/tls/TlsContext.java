@@ -0,0 +1,186 @@
+package fr.astfaster.hermeus.core.server.tls;
+
+import fr.astfaster.hermeus.api.HermeusException;
+import fr.astfaster.hermeus.api.server.Tls;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http2.Http2SecurityUtil;
+import io.netty.handler.ssl.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.security.SecureRandom;
+
+/**
+ * Holds the {@link SslContext} of a server, built from its {@linkplain Tls TLS settings}, and reloads it when the certificate files change.<br>
+ * Connections take the current context when they are accepted, so a reload never affects established connections.
+ */
+@ApiStatus.Internal
+public class TlsContext {
+
+    private static final Logger LOGGER = LogManager.getLogger(TlsContext.class);
+
+    private final Tls tls;
+    private final boolean http2;
+    private final SslProvider provider;
+    // Kept across reloads, so the tickets issued before a reload can still resume sessions (OpenSSL only)
+    private final OpenSslSessionTicketKey[] ticketKeys;
+
+    private volatile SslContext context;
+    private FileTime certificateChainModified;
+    private FileTime privateKeyModified;
+
+    private TlsContext(Tls tls, boolean http2, SslProvider provider, OpenSslSessionTicketKey[] ticketKeys, Loaded loaded) {
+        this.tls = tls;
+        this.http2 = http2;
+        this.provider = provider;
+        this.ticketKeys = ticketKeys;
+        this.context = loaded.context();
+        this.certificateChainModified = loaded.certificateChainModified();
+        this.privateKeyModified = loaded.privateKeyModified();
+    }
+
+    /**
+     * Creates the context of a server, loading its certificate and key.
+     *
+     * @param tls The {@link Tls} settings of the server
+     * @param http2 Whether HTTP/2 is negotiated with ALPN
+     * @return A new {@link TlsContext}
+     * @throws HermeusException If the files couldn't be loaded
+     */
+    public static @NotNull TlsContext create(@NotNull Tls tls, boolean http2) {
+        final SslProvider provider = provider(tls, http2);
+        final OpenSslSessionTicketKey[] ticketKeys = provider == SslProvider.OPENSSL ? new OpenSslSessionTicketKey[] {ticketKey()} : null;
+
+        return new TlsContext(tls, http2, provider, ticketKeys, load(tls, http2, provider, ticketKeys));
+    }
+
+    private static SslProvider provider(Tls tls, boolean http2) {
+        if (tls.openSsl() && OpenSsl.isAvailable() && (!http2 || SslProvider.isAlpnSupported(SslProvider.OPENSSL))) {
+            return SslProvider.OPENSSL;
+        }
+        return SslProvider.JDK;
+    }
+
+    private static OpenSslSessionTicketKey ticketKey() {
+        final SecureRandom random = new SecureRandom();
+        final byte[] name = new byte[OpenSslSessionTicketKey.NAME_SIZE];
+        final byte[] hmacKey = new byte[OpenSslSessionTicketKey.HMAC_KEY_SIZE];
+        final byte[] aesKey = new byte[OpenSslSessionTicketKey.AES_KEY_SIZE];
+
+        random.nextBytes(name);
+        random.nextBytes(hmacKey);
+        random.nextBytes(aesKey);
+
+        return new OpenSslSessionTicketKey(name, hmacKey, aesKey);
+    }
+
+    /**
+     * Creates the handler securing a new connection, with the current context.
+     *
+     * @param allocator The allocator of the connection
+     * @return A new {@link SslHandler}
+     */
+    public @NotNull SslHandler newHandler(@NotNull ByteBufAllocator allocator) {
+        return this.context.newHandler(allocator);
+    }
+
+    /**
+     * Builds a new context from the files. The current context is kept if they couldn't be loaded.
+     *
+     * @throws HermeusException If the files couldn't be loaded
+     */
+    public synchronized void reload() {
+        final Loaded loaded = load(this.tls, this.http2, this.provider, this.ticketKeys);
+
+        this.context = loaded.context();
+        this.certificateChainModified = loaded.certificateChainModified();
+        this.privateKeyModified = loaded.privateKeyModified();
+    }
+
+    private static Loaded load(Tls tls, boolean http2, SslProvider provider, OpenSslSessionTicketKey[] ticketKeys) {
+        final FileTime certificateChainModified;
+        final FileTime privateKeyModified;
+        final SslContext context;
+
+        try {
+            certificateChainModified = Files.getLastModifiedTime(tls.certificateChain());
+            privateKeyModified = Files.getLastModifiedTime(tls.privateKey());
+
+            final SslContextBuilder builder = SslContextBuilder.forServer(tls.certificateChain().toFile(), tls.privateKey().toFile(), tls.keyPassword())
+                    .sslProvider(provider)
+                    .protocols(SslProtocols.TLS_v1_3, SslProtocols.TLS_v1_2)
+                    .sessionCacheSize(tls.sessionCacheSize())
+                    .sessionTimeout(tls.sessionTimeout().getSeconds());
+
+            if (http2) {
+                builder.ciphers(Http2SecurityUtil.CIPHERS, SupportedCipherSuiteFilter.INSTANCE)
+                        .applicationProtocolConfig(new ApplicationProtocolConfig(
+                                ApplicationProtocolConfig.Protocol.ALPN,
+                                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                                ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                                ApplicationProtocolNames.HTTP_2,
+                                ApplicationProtocolNames.HTTP_1_1));
+            }
+
+            context = builder.build();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new HermeusException("Couldn't load the TLS certificate " + tls.certificateChain() + " and key " + tls.privateKey() + "!", e);
+        }
+
+        if (ticketKeys != null && context.sessionContext() instanceof OpenSslServerSessionContext sessionContext) {
+            sessionContext.setTicketKeys(ticketKeys);
+        }
+        return new Loaded(context, certificateChainModified, privateKeyModified);
+    }
+
+    /**
+     * Reloads the context if one of the files changed since the last check.<br>
+     * Files which couldn't be loaded (e.g. the certificate was replaced but not the key yet) are retried once they change again.
+     */
+    public synchronized void reloadIfModified() {
+        final FileTime certificateChainModified;
+        final FileTime privateKeyModified;
+
+        try {
+            certificateChainModified = Files.getLastModifiedTime(this.tls.certificateChain());
+            privateKeyModified = Files.getLastModifiedTime(this.tls.privateKey());
+        } catch (IOException e) {
+            LOGGER.error("Couldn't check TLS certificate {}", this.tls.certificateChain(), e);
+            return;
+        }
+
+        if (certificateChainModified.equals(this.certificateChainModified) && privateKeyModified.equals(this.privateKeyModified)) {
+            return;
+        }
+
+        try {
+            this.reload();
+
+            LOGGER.info("Reloaded TLS certificate {}", this.tls.certificateChain());
+        } catch (HermeusException e) {
+            this.certificateChainModified = certificateChainModified;
+            this.privateKeyModified = privateKeyModified;
+
+            LOGGER.error("Couldn't reload TLS certificate {}", this.tls.certificateChain(), e);
+        }
+    }
+
+    public @NotNull Tls tls() {
+        return this.tls;
+    }
+
+    public @NotNull SslProvider provider() {
+        return this.provider;
+    }
+
+    /**
+     * A context built from the files, with their modification times at the time they were read.
+     */
+    private record Loaded(SslContext context, FileTime certificateChainModified, FileTime privateKeyModified) {}
+
+}
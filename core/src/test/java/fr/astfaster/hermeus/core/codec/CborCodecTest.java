@@ -0,0 +1,206 @@
+package fr.astfaster.hermeus.core.codec;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the CBOR items written by {@link CborCodec}, and the ones it reads, including those it never writes itself (half-precision floats, definite-length strings and containers, tags, etc.).
+ */
+class CborCodecTest {
+
+    private HermeusImpl hermeus;
+    private CborCodec codec;
+
+    @BeforeEach
+    void setup() {
+        this.hermeus = HermeusImpl.create();
+        this.codec = new CborCodec(this.hermeus);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.hermeus.stop();
+    }
+
+    @Test
+    void integers() throws Exception {
+        assertArrayEquals(hex("00"), this.encode(0));
+        assertArrayEquals(hex("17"), this.encode(23));
+        assertArrayEquals(hex("1818"), this.encode(24));
+        assertArrayEquals(hex("20"), this.encode(-1));
+        assertArrayEquals(hex("3863"), this.encode(-100));
+        assertArrayEquals(hex("3903e7"), this.encode(-1000));
+        assertArrayEquals(hex("1b7fffffffffffffff"), this.encode(Long.MAX_VALUE));
+        assertArrayEquals(hex("3b7fffffffffffffff"), this.encode(Long.MIN_VALUE));
+
+        assertEquals(-100, this.decode("3863", Integer.class));
+        assertEquals(Long.MIN_VALUE, this.decode("3b7fffffffffffffff", Long.class));
+    }
+
+    @Test
+    void unsigned64BitIntegers() throws Exception {
+        assertEquals(new BigInteger("18446744073709551615"), this.decode("1bffffffffffffffff", BigInteger.class));
+        assertEquals(new BigInteger("-18446744073709551616"), this.decode("3bffffffffffffffff", BigInteger.class));
+    }
+
+    @Test
+    void halfPrecisionFloats() throws Exception {
+        assertEquals(1.0, this.decode("f93c00", Double.class));
+        assertEquals(-4.0, this.decode("f9c400", Double.class));
+        assertEquals(65504.0, this.decode("f97bff", Double.class));
+        assertEquals(0.00006103515625, this.decode("f90400", Double.class));
+        assertEquals(5.960464477539063E-8, this.decode("f90001", Double.class));
+    }
+
+    @Test
+    void floats() throws Exception {
+        assertEquals(100000.0, this.decode("fa47c35000", Double.class));
+        assertEquals(1.1, this.decode("fb3ff199999999999a", Double.class));
+        assertEquals(1.5f, this.codec.decode(Unpooled.wrappedBuffer(this.encode(1.5f)), Float.class));
+        assertEquals(-4.1, this.codec.decode(Unpooled.wrappedBuffer(this.encode(-4.1)), Double.class));
+    }
+
+    @Test
+    void strings() throws Exception {
+        assertArrayEquals(hex("6449455446"), this.encode("IETF"));
+        assertEquals("ü", this.decode("62c3bc", String.class));
+        assertEquals("streaming", this.decode("7f657374726561646d696e67ff", String.class));
+        assertEquals("", this.decode("7fff", String.class));
+        // Byte strings are read as their Base64 form
+        assertEquals("AQIDBA==", this.decode("4401020304", String.class));
+        assertEquals("AQIDBAU=", this.decode("5f42010243030405ff", String.class));
+    }
+
+    @Test
+    void arrays() throws Exception {
+        assertArrayEquals(hex("9f010203ff"), this.encode(List.of(1, 2, 3)));
+        assertArrayEquals(new int[] {1, 2, 3}, this.decode("83010203", int[].class));
+        assertArrayEquals(new int[] {1, 2, 3}, this.decode("9f010203ff", int[].class));
+        assertArrayEquals(new int[0], this.decode("80", int[].class));
+        assertArrayEquals(new int[0], this.decode("9fff", int[].class));
+    }
+
+    @Test
+    void maps() throws Exception {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", -1);
+
+        assertArrayEquals(hex("bf616101616220ff"), this.encode(map));
+        assertEquals(json("{\"a\":1,\"b\":[2,3]}"), this.decode("a26161016162820203", JsonObject.class));
+        assertEquals(json("{\"a\":1,\"b\":[2,3]}"), this.decode("bf61610161629f0203ffff", JsonObject.class));
+    }
+
+    @Test
+    void nestedMaps() throws Exception {
+        // {"o": {"a": 1, "b": [true, null]}, "e": {}} mixing definite and indefinite lengths
+        assertEquals(json("{\"o\":{\"a\":1,\"b\":[true,null]},\"e\":{}}"), this.decode("a2616fbf616101616282f5f6ff6165a0", JsonObject.class));
+    }
+
+    @Test
+    void tagsAreSkipped() throws Exception {
+        // Epoch-based date, self-described CBOR, and a tag inside a map
+        assertEquals(1363896240, this.decode("c11a514b67b0", Long.class));
+        assertEquals("IETF", this.decode("d9d9f76449455446", String.class));
+        assertEquals(json("{\"t\":\"2013-03-21T20:04:00Z\"}"), this.decode("a16174c074323031332d30332d32315432303a30343a30305a", JsonObject.class));
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        final Sample sample = new Sample();
+        sample.id = -42;
+        sample.big = Long.MAX_VALUE;
+        sample.ratio = 0.25;
+        sample.name = "hérmès 🚀";
+        sample.enabled = true;
+        sample.values = List.of(1, -1, 1000000);
+        sample.child = new Sample();
+        sample.child.name = "child";
+
+        final Sample decoded = this.codec.decode(Unpooled.wrappedBuffer(this.encode(sample)), Sample.class);
+
+        assertEquals(sample.id, decoded.id);
+        assertEquals(sample.big, decoded.big);
+        assertEquals(sample.ratio, decoded.ratio);
+        assertEquals(sample.name, decoded.name);
+        assertEquals(sample.enabled, decoded.enabled);
+        assertEquals(sample.values, decoded.values);
+        assertEquals("child", decoded.child.name);
+        assertEquals(null, decoded.child.child);
+    }
+
+    @Test
+    void truncatedInputIsRejected() throws Exception {
+        final byte[] encoded = this.encode(Map.of("key", List.of("value", 123456)));
+
+        for (int length = 0; length < encoded.length; length++) {
+            final byte[] truncated = Arrays.copyOf(encoded, length);
+
+            assertThrows(RuntimeException.class, () -> this.codec.decode(Unpooled.wrappedBuffer(truncated), JsonObject.class), "Truncated to " + length + " bytes");
+        }
+
+        assertThrows(RuntimeException.class, () -> this.decode("6261", String.class));
+        assertThrows(RuntimeException.class, () -> this.decode("1a0000", Long.class));
+        assertThrows(RuntimeException.class, () -> this.decode("8301", int[].class));
+    }
+
+    @Test
+    void invalidInputIsRejected() {
+        // Trailing data, unexpected break, and reserved additional information
+        assertThrows(RuntimeException.class, () -> this.decode("0101", Integer.class));
+        assertThrows(RuntimeException.class, () -> this.decode("ff", Integer.class));
+        assertThrows(RuntimeException.class, () -> this.decode("1c", Integer.class));
+        // Chunk of another major type in an indefinite-length string
+        assertThrows(RuntimeException.class, () -> this.decode("7f01ff", String.class));
+    }
+
+    private byte[] encode(Object object) throws Exception {
+        final ByteBuf out = Unpooled.buffer();
+
+        this.codec.encode(object, out);
+
+        return ByteBufUtil.getBytes(out);
+    }
+
+    private <T> T decode(String hex, Class<T> type) throws Exception {
+        return this.codec.decode(Unpooled.wrappedBuffer(hex(hex)), type);
+    }
+
+    private static byte[] hex(String hex) {
+        return ByteBufUtil.decodeHexDump(hex);
+    }
+
+    private static JsonObject json(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    private static class Sample {
+
+        int id;
+        long big;
+        double ratio;
+        String name;
+        boolean enabled;
+        List<Integer> values;
+        Sample child;
+
+    }
+
+}
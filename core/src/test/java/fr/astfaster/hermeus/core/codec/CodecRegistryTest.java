@@ -0,0 +1,138 @@
+package fr.astfaster.hermeus.core.codec;
+
+import fr.astfaster.hermeus.api.codec.HermeusCodec;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks how {@link CodecRegistry} picks a codec from the "Content-Type" and "Accept" headers.
+ */
+class CodecRegistryTest {
+
+    private HermeusImpl hermeus;
+    private CodecRegistry registry;
+    private HermeusCodec json;
+    private HermeusCodec cbor;
+    private HermeusCodec text;
+
+    @BeforeEach
+    void setup() {
+        this.hermeus = HermeusImpl.create();
+        this.json = new JsonCodec(this.hermeus);
+        this.cbor = new CborCodec(this.hermeus);
+        this.text = new TextCodec();
+        this.registry = new CodecRegistry();
+        this.registry.register(this.json);
+        this.registry.register(this.cbor);
+        this.registry.register(this.text);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.hermeus.stop();
+    }
+
+    @Test
+    void missingOrWildcardAcceptUsesFirstCodec() {
+        assertSame(this.json, negotiate(this.registry, null, Map.class));
+        assertSame(this.json, negotiate(this.registry, "", Map.class));
+        assertSame(this.json, negotiate(this.registry, "*/*", Map.class));
+        assertSame(this.json, negotiate(this.registry, "*/*", String.class));
+    }
+
+    @Test
+    void exactMediaType() {
+        assertSame(this.cbor, negotiate(this.registry, "application/cbor", Map.class));
+        assertSame(this.cbor, negotiate(this.registry, "Application/CBOR", Map.class));
+        assertSame(this.text, negotiate(this.registry, "text/plain; charset=UTF-8", String.class));
+        assertNull(negotiate(this.registry, "text/plain", Map.class));
+        assertNull(negotiate(this.registry, "text/html, application/xml", Map.class));
+    }
+
+    @Test
+    void zeroQualityExcludesMediaType() {
+        assertSame(this.cbor, negotiate(this.registry, "application/json;q=0, */*", Map.class));
+        assertSame(this.cbor, negotiate(this.registry, "*/*, application/json; q=0.0", Map.class));
+        assertNull(negotiate(this.registry, "application/json;q=0", Map.class));
+        assertNull(negotiate(this.registry, "*/*;q=0", Map.class));
+    }
+
+    @Test
+    void highestQualityWins() {
+        assertSame(this.json, negotiate(this.registry, "application/cbor;q=0.4, application/json;q=0.8", Map.class));
+        assertSame(this.cbor, negotiate(this.registry, "application/json;q=0.5, application/cbor", Map.class));
+        // Equal qualities keep the registration order
+        assertSame(this.json, negotiate(this.registry, "application/cbor, application/json", Map.class));
+    }
+
+    @Test
+    void mostSpecificRangeWins() {
+        // The exact media type overrides the quality of the wider ranges
+        assertSame(this.cbor, negotiate(this.registry, "*/*;q=1, application/json;q=0.1", Map.class));
+        assertSame(this.cbor, negotiate(this.registry, "application/*;q=1, application/json;q=0.1", Map.class));
+        assertSame(this.json, negotiate(this.registry, "application/*;q=0.5, application/cbor;q=0.1", Map.class));
+        assertSame(this.text, negotiate(this.registry, "application/*;q=0, */*", String.class));
+    }
+
+    @Test
+    void invalidQualityIsIgnored() {
+        assertNull(negotiate(this.registry, "application/cbor;q=abc", Map.class));
+        assertSame(this.json, negotiate(this.registry, "application/cbor;q=abc, application/json", Map.class));
+    }
+
+    @Test
+    void contentType() {
+        assertSame(this.json, forContentType(this.registry, "application/json; charset=UTF-8", Map.class));
+        assertSame(this.cbor, forContentType(this.registry, "application/cbor", Map.class));
+        assertNull(forContentType(this.registry, "text/plain", Map.class));
+        assertNull(forContentType(this.registry, "application/xml", Map.class));
+    }
+
+    @Test
+    void childOverridesParent() {
+        final HermeusCodec custom = new HermeusCodec() {
+            @Override
+            public @NotNull String contentType() {
+                return "application/json";
+            }
+
+            @Override
+            public void encode(@NotNull Object object, @NotNull ByteBuf out) {}
+
+            @Override
+            public <T> T decode(@NotNull ByteBuf in, @NotNull Class<T> type) {
+                return null;
+            }
+        };
+        final CodecRegistry child = new CodecRegistry(this.registry);
+
+        child.register(custom);
+
+        assertSame(custom, forContentType(child, "application/json", Map.class));
+        assertSame(custom, negotiate(child, null, Map.class));
+        assertSame(this.cbor, negotiate(child, "application/cbor", Map.class));
+        assertSame(this.json, forContentType(this.registry, "application/json", Map.class));
+    }
+
+    private static HermeusCodec negotiate(CodecRegistry registry, String accept, Class<?> type) {
+        final CodecRegistry.Entry entry = registry.negotiate(accept, type);
+
+        return entry == null ? null : entry.codec();
+    }
+
+    private static HermeusCodec forContentType(CodecRegistry registry, String contentType, Class<?> type) {
+        final CodecRegistry.Entry entry = registry.forContentType(contentType, type);
+
+        return entry == null ? null : entry.codec();
+    }
+
+}
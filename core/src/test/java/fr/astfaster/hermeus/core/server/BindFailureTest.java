@@ -0,0 +1,70 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.Transport;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.netty.NettyEventLoops;
+import fr.astfaster.hermeus.core.netty.NettyTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a server which couldn't bind any socket gives back what {@link HermeusServerImpl#enable()} acquired.
+ */
+class BindFailureTest {
+
+    private HermeusImpl hermeus;
+    private ServerSocket occupied;
+
+    @BeforeEach
+    void setup() throws IOException {
+        this.hermeus = HermeusImpl.create();
+        this.occupied = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.hermeus.stop();
+        this.occupied.close();
+    }
+
+    @Test
+    void sharedEventLoopsAreReleased() throws InterruptedException {
+        final HermeusServerImpl server = (HermeusServerImpl) this.hermeus.serverBuilder()
+                .address(new InetSocketAddress(InetAddress.getLoopbackAddress(), this.occupied.getLocalPort()))
+                .transport(Transport.NIO)
+                .sharedEventLoops(true)
+                .metrics(true)
+                .build();
+
+        server.enable();
+
+        // Once the server released its reference, the shared groups are shut down with the last user
+        final NettyEventLoops eventLoops = this.hermeus.eventLoops();
+        final long deadline = System.nanoTime() + 5_000_000_000L;
+        boolean released = false;
+
+        while (!released && System.nanoTime() < deadline) {
+            final NettyEventLoops.Groups groups = eventLoops.acquire(NettyTransport.NIO, 1, 1);
+
+            eventLoops.release(groups);
+            released = groups.boss().isShuttingDown() && groups.worker().isShuttingDown();
+
+            if (!released) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertTrue(released, "The shared event loops are still used");
+        assertFalse(server.enabled());
+    }
+
+}
@@ -0,0 +1,193 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.server.routing.PathCursor;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the files served by {@link HermeusRouterImpl#files(String, Path)}.<br>
+ * Handlers are called directly on an embedded channel, whose outbound messages are the written response.
+ */
+class FileResponseTest {
+
+    @TempDir
+    Path directory;
+
+    private HermeusImpl hermeus;
+    private HermeusRouterImpl router;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.writeString(this.directory.resolve("c++.txt"), "plus");
+        Files.writeString(this.directory.resolve("a b.txt"), "space");
+        Files.writeString(this.directory.resolve("range.txt"), "0123456789");
+
+        this.hermeus = HermeusImpl.create();
+        this.router = new HermeusRouterImpl("/", null);
+        this.router.files("/assets", this.directory);
+        this.channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.channel.finishAndReleaseAll();
+        this.hermeus.stop();
+    }
+
+    private HttpResponseStatus get(String uri) {
+        return this.get(uri, new String[0]).status();
+    }
+
+    /**
+     * Requests a file.
+     *
+     * @param uri The URI of the file
+     * @param headers The names and values of the headers of the request
+     * @return The head of the response
+     */
+    private HttpResponse get(String uri, String... headers) {
+        final FullHttpRequest message = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+
+        for (int i = 0; i < headers.length; i += 2) {
+            message.headers().add(headers[i], headers[i + 1]);
+        }
+
+        final HermeusResponseImpl response = new HermeusResponseImpl(this.hermeus, this.channel.pipeline().firstContext(), message, true);
+        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, message, Unpooled.EMPTY_BUFFER, response);
+        final HermeusRouterImpl.RegisteredHandler handler = this.router.route(PathCursor.of(uri), request);
+
+        assertNotNull(handler);
+
+        handler.process(request, response);
+
+        final HttpResponse written = this.channel.readOutbound();
+
+        this.channel.releaseOutbound();
+
+        return written;
+    }
+
+    private String lastModified() throws IOException {
+        return DateFormatter.format(new Date(Files.getLastModifiedTime(this.directory.resolve("range.txt")).toMillis() / 1000 * 1000));
+    }
+
+    private String etag() {
+        return this.get("/assets/range.txt", new String[0]).headers().get(HttpHeaderNames.ETAG);
+    }
+
+    @Test
+    void plusSignInFileName() {
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/c++.txt"));
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/c%2B%2B.txt"));
+    }
+
+    @Test
+    void encodedSpaceInFileName() {
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/a%20b.txt"));
+        assertEquals(HttpResponseStatus.NOT_FOUND, this.get("/assets/a+b.txt"));
+    }
+
+    @Test
+    void invalidPath() {
+        assertEquals(HttpResponseStatus.NOT_FOUND, this.get("/assets/a%00b"));
+        assertEquals(HttpResponseStatus.NOT_FOUND, this.get("/assets/..%2F..%2Fetc%2Fpasswd"));
+    }
+
+    @Test
+    void range() {
+        final HttpResponse response = this.get("/assets/range.txt", "Range", "bytes=2-5");
+
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("bytes 2-5/10", response.headers().get(HttpHeaderNames.CONTENT_RANGE));
+        assertEquals("4", response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+    }
+
+    @Test
+    void suffixRange() {
+        final HttpResponse response = this.get("/assets/range.txt", "Range", "bytes=-3");
+
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, response.status());
+        assertEquals("bytes 7-9/10", response.headers().get(HttpHeaderNames.CONTENT_RANGE));
+
+        // Longer than the file: the whole file
+        assertEquals("bytes 0-9/10", this.get("/assets/range.txt", "Range", "bytes=-50").headers().get(HttpHeaderNames.CONTENT_RANGE));
+    }
+
+    @Test
+    void rangePastTheEnd() {
+        final HttpResponse response = this.get("/assets/range.txt", "Range", "bytes=10-");
+
+        assertEquals(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.status());
+        assertEquals("bytes */10", response.headers().get(HttpHeaderNames.CONTENT_RANGE));
+
+        // Only the end is past the end: truncated
+        assertEquals("bytes 8-9/10", this.get("/assets/range.txt", "Range", "bytes=8-20").headers().get(HttpHeaderNames.CONTENT_RANGE));
+    }
+
+    @Test
+    void multipleOrInvalidRangesAreIgnored() {
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "bytes=0-1,4-5").status());
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "bytes=5-2").status());
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "items=0-1").status());
+    }
+
+    @Test
+    void ifRange() throws IOException {
+        final String etag = this.etag();
+
+        // Files have weak entity tags, which never validate a range
+        assertTrue(etag.startsWith("W/"));
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "bytes=0-1", "If-Range", etag).status());
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "bytes=0-1", "If-Range", etag.substring(2)).status());
+
+        // Only the exact modification date does
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, this.get("/assets/range.txt", "Range", "bytes=0-1", "If-Range", this.lastModified()).status());
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "Range", "bytes=0-1", "If-Range", DateFormatter.format(new Date(System.currentTimeMillis() + 3_600_000))).status());
+    }
+
+    @Test
+    void ifNoneMatch() {
+        final String etag = this.etag();
+
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, this.get("/assets/range.txt", "If-None-Match", etag).status());
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, this.get("/assets/range.txt", "If-None-Match", "\"other\", " + etag.substring(2)).status());
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, this.get("/assets/range.txt", "If-None-Match", "*").status());
+
+        // Tags are compared as a whole, not as substrings of the header
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "If-None-Match", etag.substring(2) + "-gz").status());
+    }
+
+    @Test
+    void ifModifiedSince() throws IOException {
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, this.get("/assets/range.txt", "If-Modified-Since", this.lastModified()).status());
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "If-Modified-Since", DateFormatter.format(new Date(0))).status());
+
+        // If-None-Match takes precedence
+        assertEquals(HttpResponseStatus.OK, this.get("/assets/range.txt", "If-None-Match", "\"other\"", "If-Modified-Since", this.lastModified()).status());
+    }
+
+}
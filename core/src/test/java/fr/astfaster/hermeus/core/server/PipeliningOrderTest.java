@@ -0,0 +1,199 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.ExecutionMode;
+import fr.astfaster.hermeus.api.server.HermeusStreamHandler;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.codec.http.HttpMethod;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the responses of pipelined requests are sent in the order of the requests, whatever thread their handlers run on.<br>
+ * The connection runs on a real event loop: unlike an embedded one, it only runs the writes of other threads as tasks.
+ */
+class PipeliningOrderTest {
+
+    private static final String WORKER_REQUEST = "GET /worker HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String EVENT_LOOP_REQUEST = "GET /loop HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String UPLOAD_REQUEST = "POST /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: 3\r\n\r\nabc";
+
+    private HermeusImpl hermeus;
+    private HermeusServerImpl server;
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private Channel client;
+
+    // The connection on the side of the server
+    private final CompletableFuture<Channel> connection = new CompletableFuture<>();
+    private final StringBuffer received = new StringBuffer();
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        this.hermeus = HermeusImpl.create();
+        this.server = (HermeusServerImpl) this.hermeus.serverBuilder()
+                .address(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .idleTimeout(Duration.ZERO)
+                .http2(false)
+                .build();
+        this.server.enable();
+
+        this.group = new DefaultEventLoopGroup(1);
+
+        final LocalAddress address = new LocalAddress("hermeus-pipelining");
+
+        this.serverChannel = new ServerBootstrap()
+                .group(this.group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        PipeliningOrderTest.this.server.initConnection(ch);
+                        PipeliningOrderTest.this.connection.complete(ch);
+                    }
+                })
+                .bind(address).sync().channel();
+
+        this.client = new Bootstrap()
+                .group(this.group)
+                .channel(LocalChannel.class)
+                .handler(new SimpleChannelInboundHandler<ByteBuf>() {
+                    @Override
+                    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+                        PipeliningOrderTest.this.received.append(msg.toString(StandardCharsets.US_ASCII));
+                    }
+                })
+                .connect(address).sync().channel();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.client.close().syncUninterruptibly();
+        this.serverChannel.close().syncUninterruptibly();
+        this.group.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+        this.hermeus.stop();
+    }
+
+    @Test
+    void workerPoolResponseBeforeEventLoopResponse() throws Exception {
+        final CountDownLatch loopBlocked = new CountDownLatch(1);
+        final CountDownLatch handlerReturned = new CountDownLatch(1);
+
+        this.server.router().get("/worker", (request, response) -> {
+            final Channel connection = this.connection.join();
+
+            // Keeps the event loop busy while the response is written, so the write stays queued behind the next request
+            connection.eventLoop().execute(() -> {
+                loopBlocked.countDown();
+
+                try {
+                    handlerReturned.await(5, TimeUnit.SECONDS);
+                    this.awaitIdle(connection);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                // Read while the write of the first response is still queued, as a second request in the socket would be
+                connection.pipeline().fireChannelRead(Unpooled.copiedBuffer(EVENT_LOOP_REQUEST, StandardCharsets.US_ASCII));
+                connection.pipeline().fireChannelReadComplete();
+            });
+
+            try {
+                loopBlocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            response.text("first");
+            handlerReturned.countDown();
+        }).executionMode(ExecutionMode.WORKER_POOL);
+        this.server.router().get("/loop", (request, response) -> response.text("second")).executionMode(ExecutionMode.EVENT_LOOP);
+
+        this.client.writeAndFlush(Unpooled.copiedBuffer(WORKER_REQUEST, StandardCharsets.US_ASCII)).sync();
+
+        this.assertOrder();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutionMode.class, names = {"EVENT_LOOP", "WORKER_POOL"})
+    void streamHandlerRespondingAfterBody(ExecutionMode mode) throws Exception {
+        final ScheduledExecutorService responder = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            // Replies once the body is read, from another thread, like a handler processing the body elsewhere
+            this.server.router().streamHandler(HttpMethod.POST, "/upload", (request, response, stream) -> new HermeusStreamHandler.BodyReader() {
+                @Override
+                public void content(@NotNull ByteBuf chunk) {}
+
+                @Override
+                public void end() {
+                    responder.schedule(() -> response.text("first"), 100, TimeUnit.MILLISECONDS);
+                }
+            }).executionMode(mode);
+            this.server.router().get("/loop", (request, response) -> response.text("second")).executionMode(ExecutionMode.EVENT_LOOP);
+
+            this.client.writeAndFlush(Unpooled.copiedBuffer(UPLOAD_REQUEST + EVENT_LOOP_REQUEST, StandardCharsets.US_ASCII)).sync();
+
+            this.assertOrder();
+        } finally {
+            responder.shutdown();
+        }
+    }
+
+    private void assertOrder() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (this.received.indexOf("second") == -1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Let a misplaced first response arrive
+        Thread.sleep(200);
+
+        final String received = this.received.toString();
+
+        assertTrue(received.contains("first") && received.contains("second"), "Both responses must be received: " + received);
+        assertTrue(received.indexOf("first") < received.indexOf("second"), "Responses must follow the order of the requests: " + received);
+    }
+
+    /**
+     * Waits until the connection doesn't have a pending handler anymore, or a short delay if it keeps one (as it should while its response is queued).
+     */
+    private void awaitIdle(Channel connection) throws InterruptedException {
+        final ChannelHandlerContext ctx = connection.pipeline().firstContext();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+
+        while (this.server.handlerExecutor().pending(ctx) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+}
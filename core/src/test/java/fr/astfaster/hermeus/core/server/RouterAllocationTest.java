@@ -0,0 +1,90 @@
+package fr.astfaster.hermeus.core.server;
+
+import fr.astfaster.hermeus.api.server.HermeusHandler;
+import fr.astfaster.hermeus.api.server.HermeusRouter;
+import fr.astfaster.hermeus.core.HermeusImpl;
+import fr.astfaster.hermeus.core.server.routing.PathCursor;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that routing a request through nested sub-routers doesn't allocate anything, once the routing code is compiled.
+ */
+class RouterAllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private HermeusImpl hermeus;
+    private HermeusRouterImpl router;
+    // Reused like the cursor of an event loop
+    private final PathCursor cursor = PathCursor.of("/");
+
+    @BeforeEach
+    void setup() {
+        assumeTrue(this.threads.isThreadAllocatedMemorySupported(), "Allocated memory per thread is not measurable");
+
+        this.threads.setThreadAllocatedMemoryEnabled(true);
+
+        final HermeusHandler handler = (request, response) -> {};
+
+        this.hermeus = HermeusImpl.create();
+        this.router = new HermeusRouterImpl("/", null);
+        this.router.get("/hello", handler);
+
+        final HermeusRouter users = this.router.subRouter("/v1").subRouter("/users");
+
+        users.get("/:id", handler);
+        users.get("/:id/posts/:post", handler);
+        this.router.subRouter("/files").get("/*path", handler);
+    }
+
+    private long allocatedBytes(String uri) {
+        final HermeusRequestImpl request = new HermeusRequestImpl(this.hermeus, new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri), Unpooled.EMPTY_BUFFER, null);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertNotNull(this.route(uri, request));
+        }
+
+        final long thread = Thread.currentThread().getId();
+        final long before = this.threads.getThreadAllocatedBytes(thread);
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            this.route(uri, request);
+        }
+        return this.threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    // Called by both loops, so that the measured one runs the compiled routing
+    private HermeusRouterImpl.RegisteredHandler route(String uri, HermeusRequestImpl request) {
+        return this.router.route(this.cursor.reset(uri), request);
+    }
+
+    @Test
+    void staticRoute() {
+        assertEquals(0, this.allocatedBytes("/hello"));
+    }
+
+    @Test
+    void nestedParameterisedRoute() {
+        assertEquals(0, this.allocatedBytes("/v1/users/42/posts/7?page=2"));
+    }
+
+    @Test
+    void nestedWildcardRoute() {
+        assertEquals(0, this.allocatedBytes("/files/css/app/main.css"));
+    }
+
+}
@@ -0,0 +1,111 @@
+package fr.astfaster.hermeus.core.server.log;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import fr.astfaster.hermeus.api.server.AccessLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the entries encoded by {@link AccessLogWriter}, including the truncation of long methods and routes.
+ */
+class AccessLogWriterTest {
+
+    private static final String LONG_METHOD = "M\"".repeat(200);
+    private static final String LONG_ROUTE = "/\"é".repeat(1000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void binary() throws IOException {
+        final ByteBuffer log = ByteBuffer.wrap(this.write(AccessLog.Format.BINARY, event("GET", "/users/:id"), event(LONG_METHOD, LONG_ROUTE), event("PURGE", null)));
+
+        this.assertRecord(log, "GET", "/users/:id");
+        this.assertRecord(log, LONG_METHOD.substring(0, 64), LONG_ROUTE.substring(0, 1024));
+        this.assertRecord(log, "PURGE", "");
+        assertFalse(log.hasRemaining());
+    }
+
+    @Test
+    void jsonLines() throws IOException {
+        final List<String> lines = new String(this.write(AccessLog.Format.JSON_LINES, event("GET", "/users/:id"), event(LONG_METHOD, LONG_ROUTE), event("PURGE", null)), StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(3, lines.size());
+
+        final JsonObject truncated = JsonParser.parseString(lines.get(1)).getAsJsonObject();
+
+        assertEquals(LONG_METHOD.substring(0, 64), truncated.get("method").getAsString());
+        assertEquals(LONG_ROUTE.substring(0, 1024), truncated.get("route").getAsString());
+        assertEquals("127.0.0.1:4321", truncated.get("remote").getAsString());
+        assertEquals("GET", JsonParser.parseString(lines.get(0)).getAsJsonObject().get("method").getAsString());
+        assertTrue(JsonParser.parseString(lines.get(2)).getAsJsonObject().get("route").isJsonNull());
+    }
+
+    private byte[] write(AccessLog.Format format, AccessLogEvent... events) throws IOException {
+        final Path file = this.directory.resolve("access.log");
+        final AccessLogWriter writer = new AccessLogWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE), format);
+
+        for (int i = 0; i < events.length; i++) {
+            writer.onEvent(events[i], i, i == events.length - 1);
+        }
+
+        writer.onShutdown();
+
+        return Files.readAllBytes(file);
+    }
+
+    private void assertRecord(ByteBuffer log, String method, String route) {
+        final int start = log.position();
+        final int length = log.getShort();
+
+        assertEquals(1234, log.getLong());
+        assertEquals(5678, log.getLong());
+        assertEquals(42, log.getLong());
+        assertEquals(200, log.getShort());
+        assertEquals(method, string(log, log.get() & 0xFF, StandardCharsets.US_ASCII));
+        assertEquals(route, string(log, log.getShort() & 0xFFFF, StandardCharsets.UTF_8));
+        assertEquals(4, log.get());
+        assertEquals(0x7F000001, log.getInt());
+        assertEquals(4321, log.getShort() & 0xFFFF);
+        assertEquals(length, log.position() - start);
+    }
+
+    private static String string(ByteBuffer buffer, int length, Charset charset) {
+        final byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, charset);
+    }
+
+    private static AccessLogEvent event(String method, String route) {
+        final AccessLogEvent event = new AccessLogEvent();
+
+        event.time = 1234;
+        event.latency = 5678;
+        event.bytes = 42;
+        event.status = 200;
+        event.method = method;
+        event.route = route;
+        event.remote = new InetSocketAddress("127.0.0.1", 4321);
+
+        return event;
+    }
+
+}